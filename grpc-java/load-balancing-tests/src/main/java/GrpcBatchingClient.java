@@ -0,0 +1,273 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.Channel;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends {@code SayHello} requests over streams instead of one unary call each, while every caller still gets its own
+ * future.  Requests are buffered until {@code maxBatchSize} are waiting or {@code window} has passed since the first,
+ * then sent together:
+ * <ul>
+ *   <li>{@link Mode#CLIENT_STREAM} - each batch is one client-streaming call, answered when it half-closes.</li>
+ *   <li>{@link Mode#BIDI} - batches are written to a long-lived bidirectional stream and answered per message.  The
+ *   stream is replaced after {@code maxMessagesPerStream} so the load balancer gets to pick a backend again.</li>
+ * </ul>
+ * A failed stream fails every request still waiting on it; unlike unary calls, these requests are not retried.
+ *
+ * Messages are only handed to a stream while it {@link ClientCallStreamObserver#isReady() is ready}; the rest wait
+ * until its on-ready handler drains them, so a slow backend holds them here rather than in the transport's outbound
+ * queue.  At most {@code maxOutstanding} requests can be buffered, unsent or awaiting a response at once; beyond that
+ * {@link #sayHello} fails fast with RESOURCE_EXHAUSTED instead of queueing without bound.
+ */
+@Slf4j
+public class GrpcBatchingClient implements AutoCloseable {
+  public enum Mode { CLIENT_STREAM, BIDI }
+
+  @Value
+  @Builder
+  public static class Settings {
+    @Builder.Default Mode mode = Mode.BIDI;
+    @Builder.Default int maxBatchSize = 64;
+    @Builder.Default long windowMicros = 1000;
+    @Builder.Default int maxMessagesPerStream = 100_000;
+    @Builder.Default int maxOutstanding = 10_000;
+  }
+
+  private final GrpcClientTestGrpc.GrpcClientTestStub stub;
+  private final Settings settings;
+  private final ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("grpc-batch-window-%d").setDaemon(true).build());
+  private final AtomicLong ids = new AtomicLong();
+  private final AtomicInteger outstanding = new AtomicInteger();
+  // Guarded by this
+  private List<Pending> batch = new ArrayList<>();
+  private ScheduledFuture<?> windowFlush;
+  private OutboundStream bidi;
+  private boolean closed;
+
+  private record Pending(GrpcClientRequest request, CompletableFuture<GrpcClientResponse> response) {}
+
+  public GrpcBatchingClient(Channel channel, Settings settings) {
+    this.stub = GrpcClientTestGrpc.newStub(channel);
+    this.settings = settings;
+  }
+
+  public CompletableFuture<GrpcClientResponse> sayHello(GrpcClientRequest request) {
+    CompletableFuture<GrpcClientResponse> response = new CompletableFuture<>();
+    synchronized (this) {
+      Preconditions.checkState(!closed, "GrpcBatchingClient is closed");
+      if (outstanding.get() >= settings.getMaxOutstanding()) {
+        response.completeExceptionally(Status.RESOURCE_EXHAUSTED
+            .withDescription(outstanding.get() + " requests outstanding").asRuntimeException());
+        return response;
+      }
+      outstanding.incrementAndGet();
+      response.whenComplete((result, e) -> outstanding.decrementAndGet());
+      batch.add(new Pending(request.toBuilder().setId(ids.incrementAndGet()).build(), response));
+      if (batch.size() >= settings.getMaxBatchSize()) {
+        flush();
+      } else if (windowFlush == null) {
+        windowFlush = windowTimer.schedule(this::flush, settings.getWindowMicros(), TimeUnit.MICROSECONDS);
+      }
+    }
+    return response;
+  }
+
+  /**
+   * Sends whatever is buffered now, as far as the stream is ready for it.  Stream observers are not thread safe, so
+   * sending stays under the lock; it only queues the messages on the transport.
+   */
+  public synchronized void flush() {
+    if (windowFlush != null) {
+      windowFlush.cancel(false);
+      windowFlush = null;
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<Pending> sending = batch;
+    batch = new ArrayList<>();
+    if (settings.getMode() == Mode.CLIENT_STREAM) {
+      sendClientStream(sending);
+    } else {
+      sendBidi(sending);
+    }
+  }
+
+  private void sendClientStream(List<Pending> sending) {
+    OutboundStream stream = new OutboundStream();
+    stub.sayHelloClientStream(new ClientResponseObserver<GrpcClientRequest, GrpcClientBatchResponse>() {
+      @Override
+      public void beforeStart(ClientCallStreamObserver<GrpcClientRequest> requests) {
+        stream.attach(requests);
+      }
+
+      @Override
+      public void onNext(GrpcClientBatchResponse batchResponse) {
+        batchResponse.getResponsesList().forEach(stream::complete);
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        stream.fail(t);
+      }
+
+      @Override
+      public void onCompleted() {
+        stream.fail(Status.INTERNAL.withDescription("No response in batch").asRuntimeException());
+      }
+    });
+    stream.send(sending);
+    stream.halfClose();
+  }
+
+  private void sendBidi(List<Pending> sending) {
+    if (bidi == null || bidi.sent >= settings.getMaxMessagesPerStream()) {
+      if (bidi != null) {
+        // Messages it has not sent yet still go out on it before it half-closes
+        bidi.halfClose();
+      }
+      bidi = newBidiStream();
+    }
+    bidi.send(sending);
+  }
+
+  private OutboundStream newBidiStream() {
+    OutboundStream stream = new OutboundStream();
+    stub.sayHelloBidi(new ClientResponseObserver<GrpcClientRequest, GrpcClientResponse>() {
+      @Override
+      public void beforeStart(ClientCallStreamObserver<GrpcClientRequest> requests) {
+        stream.attach(requests);
+      }
+
+      @Override
+      public void onNext(GrpcClientResponse response) {
+        stream.complete(response);
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        log.warn("Bidi stream failed with {} requests waiting", stream.waiting.size(), t);
+        streamEnded(stream);
+        stream.fail(t);
+      }
+
+      @Override
+      public void onCompleted() {
+        streamEnded(stream);
+        stream.fail(Status.INTERNAL.withDescription("Stream ended before responding").asRuntimeException());
+      }
+    });
+    return stream;
+  }
+
+  /**
+   * One request stream and the requests waiting on it.  Writes happen under the client's lock, whether they come from
+   * {@link #flush} or from the stream's on-ready handler.
+   */
+  private class OutboundStream {
+    final Map<Long, CompletableFuture<GrpcClientResponse>> waiting = new ConcurrentHashMap<>();
+    // Guarded by GrpcBatchingClient.this
+    final Deque<GrpcClientRequest> unsent = new ArrayDeque<>();
+    ClientCallStreamObserver<GrpcClientRequest> requests;
+    int sent;
+    boolean halfClosing;
+    boolean halfClosed;
+
+    void attach(ClientCallStreamObserver<GrpcClientRequest> requests) {
+      this.requests = requests;
+      requests.setOnReadyHandler(this::drain);
+    }
+
+    void send(List<Pending> sending) {
+      synchronized (GrpcBatchingClient.this) {
+        for (Pending pending : sending) {
+          waiting.put(pending.request().getId(), pending.response());
+          unsent.add(pending.request());
+        }
+        sent += sending.size();
+        drain();
+      }
+    }
+
+    void halfClose() {
+      synchronized (GrpcBatchingClient.this) {
+        halfClosing = true;
+        drain();
+      }
+    }
+
+    void drain() {
+      synchronized (GrpcBatchingClient.this) {
+        while (!unsent.isEmpty() && requests.isReady()) {
+          requests.onNext(unsent.poll());
+        }
+        if (halfClosing && !halfClosed && unsent.isEmpty()) {
+          halfClosed = true;
+          requests.onCompleted();
+        }
+      }
+    }
+
+    void complete(GrpcClientResponse response) {
+      CompletableFuture<GrpcClientResponse> future = waiting.remove(response.getId());
+      if (future != null) {
+        future.complete(response);
+      }
+    }
+
+    void fail(Throwable t) {
+      synchronized (GrpcBatchingClient.this) {
+        unsent.clear();
+        halfClosed = true;
+      }
+      waiting.values().forEach(future -> future.completeExceptionally(t));
+      waiting.clear();
+    }
+  }
+
+  private synchronized void streamEnded(OutboundStream stream) {
+    if (bidi == stream) {
+      bidi = null;
+    }
+  }
+
+  /**
+   * Sends what is buffered and half-closes the bidi stream once it has sent everything; requests already sent still
+   * complete.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      flush();
+      if (bidi != null) {
+        bidi.halfClose();
+        bidi = null;
+      }
+    }
+    windowTimer.shutdown();
+  }
+}
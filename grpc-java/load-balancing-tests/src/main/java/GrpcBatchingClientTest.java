@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import static org.junit.Assert.*;
+
+import io.grpc.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Every request sent through {@link GrpcBatchingClient} should complete its own future with its own response, however
+ * the requests were grouped into streams.
+ */
+public class GrpcBatchingClientTest {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new StaticResolverProvider());
+  }
+
+  private static final int REQUESTS = 1000;
+
+  private GrpcClientTestServer testServer1;
+  private GrpcClientTestServer testServer2;
+  private Server server1;
+  private Server server2;
+  private ManagedChannel channel;
+
+  @Before
+  public void setup() throws Exception {
+    testServer1 = new GrpcClientTestServer(1);
+    testServer2 = new GrpcClientTestServer(2);
+    server1 = testServer1.start(0);
+    server2 = testServer2.start(0);
+    channel = new GrpcClientConfig("static:///127.0.0.1:" + server1.getPort() + ",127.0.0.1:" + server2.getPort())
+        .getChannelBuilder()
+        .build();
+  }
+
+  @After
+  public void stopServers() throws Exception {
+    channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    server1.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+    server2.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void clientStreamBatchesCompleteEachRequest() throws Exception {
+    sendAndCheck(GrpcBatchingClient.Settings.builder().mode(GrpcBatchingClient.Mode.CLIENT_STREAM).build());
+  }
+
+  @Test
+  public void bidiStreamCompletesEachRequest() throws Exception {
+    sendAndCheck(GrpcBatchingClient.Settings.builder().mode(GrpcBatchingClient.Mode.BIDI).build());
+  }
+
+  @Test
+  public void bidiStreamsAreReplacedAndSpreadOverBackends() throws Exception {
+    sendAndCheck(GrpcBatchingClient.Settings.builder()
+        .mode(GrpcBatchingClient.Mode.BIDI)
+        .maxBatchSize(10)
+        .maxMessagesPerStream(100)
+        .build());
+    assertTrue(testServer1.requestCount() > 0);
+    assertTrue(testServer2.requestCount() > 0);
+  }
+
+  @Test
+  public void requestsBeyondMaxOutstandingFailFast() throws Exception {
+    List<CompletableFuture<GrpcClientResponse>> responses = new ArrayList<>();
+    CompletableFuture<GrpcClientResponse> rejected;
+    // A long window keeps the first ten buffered, so they are all outstanding when the eleventh arrives
+    try (GrpcBatchingClient client = new GrpcBatchingClient(channel, GrpcBatchingClient.Settings.builder()
+        .maxOutstanding(10)
+        .windowMicros(TimeUnit.SECONDS.toMicros(10))
+        .build())) {
+      for (int i = 0; i < 10; i++) {
+        responses.add(client.sayHello(GrpcClientRequest.newBuilder().setName("request " + i).build()));
+      }
+      rejected = client.sayHello(GrpcClientRequest.newBuilder().setName("one too many").build());
+    }
+    assertTrue(rejected.isCompletedExceptionally());
+    try {
+      rejected.join();
+      fail("Expected RESOURCE_EXHAUSTED");
+    } catch (CompletionException e) {
+      assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(e.getCause()).getCode());
+    }
+    for (CompletableFuture<GrpcClientResponse> response : responses) {
+      response.get(10, TimeUnit.SECONDS);
+    }
+    assertEquals(10, testServer1.requestCount() + testServer2.requestCount());
+  }
+
+  private void sendAndCheck(GrpcBatchingClient.Settings settings) throws Exception {
+    List<CompletableFuture<GrpcClientResponse>> responses = new ArrayList<>();
+    try (GrpcBatchingClient client = new GrpcBatchingClient(channel, settings)) {
+      for (int i = 0; i < REQUESTS; i++) {
+        responses.add(client.sayHello(GrpcClientRequest.newBuilder().setName("request " + i).build()));
+      }
+      for (int i = 0; i < REQUESTS; i++) {
+        String message = responses.get(i).get(10, TimeUnit.SECONDS).getMessage();
+        assertTrue(message, message.startsWith("hello 'request " + i + "' from the server"));
+      }
+    }
+    assertEquals(REQUESTS, testServer1.requestCount() + testServer2.requestCount());
+  }
+}
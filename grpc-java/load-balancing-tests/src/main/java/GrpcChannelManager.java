@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import com.google.common.base.Preconditions;
+import io.grpc.ConnectivityState;
+import io.grpc.InternalChannelz;
+import io.grpc.InternalChannelz.ChannelStats;
+import io.grpc.InternalInstrumented;
+import io.grpc.InternalWithLogId;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.netty.channel.Channel;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out one shared {@link ManagedChannel} per {@link GrpcClientConfig} (target, authority and service config), so
+ * logical clients of the same service share its subchannels and TCP connections instead of each dialing every backend.
+ * All channels run on one event loop group (epoll when available) and one application executor.
+ *
+ * Closing the manager shuts the channels down first and only then the threads they run on.
+ */
+@Slf4j
+public class GrpcChannelManager implements AutoCloseable, MeterBinder {
+  private final ConcurrentMap<GrpcClientConfig, ManagedChannel> channels = new ConcurrentHashMap<>();
+  private final Settings settings;
+  private final EventLoopGroup eventLoopGroup;
+  private final Class<? extends Channel> channelType;
+  private final ExecutorService executor;
+  private volatile boolean closed;
+
+  @Value
+  @Builder
+  public static class Settings {
+    @Builder.Default int eventLoopThreads = Runtime.getRuntime().availableProcessors();
+    @Builder.Default int executorThreads = Runtime.getRuntime().availableProcessors() * 2;
+    // Servers reject pings more often than their permitKeepAliveTime (5 minutes by default) with GOAWAY, so stay at
+    // or above it unless the servers are configured to allow more.
+    @Builder.Default long keepAliveTimeSeconds = TimeUnit.MINUTES.toSeconds(5);
+    @Builder.Default long keepAliveTimeoutSeconds = 20;
+    @Builder.Default boolean keepAliveWithoutCalls = false;
+    @Builder.Default long idleTimeoutSeconds = TimeUnit.MINUTES.toSeconds(30);
+    @Builder.Default long shutdownTimeoutSeconds = 10;
+  }
+
+  public GrpcChannelManager() {
+    this(Settings.builder().build());
+  }
+
+  public GrpcChannelManager(Settings settings) {
+    this.settings = settings;
+    DefaultThreadFactory eventLoopThreads = new DefaultThreadFactory("grpc-shared-eventloop", true);
+    if (Epoll.isAvailable()) {
+      eventLoopGroup = new EpollEventLoopGroup(settings.getEventLoopThreads(), eventLoopThreads);
+      channelType = EpollSocketChannel.class;
+    } else {
+      log.info("Epoll is not available, using NIO: {}", Epoll.unavailabilityCause().toString());
+      eventLoopGroup = new NioEventLoopGroup(settings.getEventLoopThreads(), eventLoopThreads);
+      channelType = NioSocketChannel.class;
+    }
+    executor = Executors.newFixedThreadPool(
+        settings.getExecutorThreads(), new DefaultThreadFactory("grpc-shared-executor", true));
+  }
+
+  /**
+   * Returns the shared channel for this config, building it on first use.  Callers must not shut it down themselves.
+   */
+  public ManagedChannel getChannel(GrpcClientConfig config) {
+    Preconditions.checkState(!closed, "GrpcChannelManager is closed");
+    return channels.computeIfAbsent(config, this::newChannel);
+  }
+
+  private ManagedChannel newChannel(GrpcClientConfig config) {
+    log.info("Opening shared channel to {} with authority {}", config.getTarget(), config.getAuthority());
+    return config.getNettyChannelBuilder()
+        .eventLoopGroup(eventLoopGroup)
+        .channelType(channelType)
+        .executor(executor)
+        .keepAliveTime(settings.getKeepAliveTimeSeconds(), TimeUnit.SECONDS)
+        .keepAliveTimeout(settings.getKeepAliveTimeoutSeconds(), TimeUnit.SECONDS)
+        .keepAliveWithoutCalls(settings.isKeepAliveWithoutCalls())
+        .idleTimeout(settings.getIdleTimeoutSeconds(), TimeUnit.SECONDS)
+        .build();
+  }
+
+  public int openChannels() {
+    return (int) channels.values().stream().filter(channel -> !channel.isShutdown()).count();
+  }
+
+  /**
+   * Counts the subchannels of this manager's channels by connectivity state, read from channelz.  Channels built
+   * elsewhere for the same target are counted too, since channelz only knows channels by target.
+   */
+  public Map<ConnectivityState, Integer> subchannelStates() {
+    Map<ConnectivityState, Integer> counts = new EnumMap<>(ConnectivityState.class);
+    Set<String> targets = channels.keySet().stream().map(GrpcClientConfig::getTarget).collect(Collectors.toSet());
+    InternalChannelz channelz = InternalChannelz.instance();
+    for (InternalInstrumented<ChannelStats> root : channelz.getRootChannels(0, Integer.MAX_VALUE).channels) {
+      ChannelStats rootStats = statsOf(root);
+      if (rootStats == null || !targets.contains(rootStats.target)) {
+        continue;
+      }
+      for (InternalWithLogId subchannelId : rootStats.subchannels) {
+        ChannelStats subchannelStats = statsOf(channelz.getSubchannel(subchannelId.getLogId().getId()));
+        if (subchannelStats != null && subchannelStats.state != null) {
+          counts.merge(subchannelStats.state, 1, Integer::sum);
+        }
+      }
+    }
+    return counts;
+  }
+
+  private static ChannelStats statsOf(InternalInstrumented<ChannelStats> instrumented) {
+    if (instrumented == null) {
+      return null;
+    }
+    try {
+      return instrumented.getStats().get(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (Exception e) {
+      log.debug("Could not read channelz stats for {}", instrumented.getLogId(), e);
+      return null;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("grpc.client.channels.open", this, GrpcChannelManager::openChannels)
+        .description("Shared gRPC channels that are not shut down")
+        .register(registry);
+    for (ConnectivityState state : ConnectivityState.values()) {
+      Gauge.builder("grpc.client.subchannels", this, manager -> manager.subchannelStates().getOrDefault(state, 0))
+          .description("Subchannels of the shared gRPC channels by connectivity state")
+          .tag("state", state.name())
+          .register(registry);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getShutdownTimeoutSeconds());
+    channels.values().forEach(ManagedChannel::shutdown);
+    for (ManagedChannel channel : channels.values()) {
+      try {
+        if (!channel.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+          log.warn("Channel {} did not terminate in time, cancelling its calls", channel);
+          channel.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        channel.shutdownNow();
+      }
+    }
+    channels.clear();
+    // Calls may still be delivering callbacks on the executor, and the event loops carry the transports, so these go
+    // last
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      executor.shutdownNow();
+    }
+    eventLoopGroup.shutdownGracefully(0, settings.getShutdownTimeoutSeconds(), TimeUnit.SECONDS).awaitUninterruptibly();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import io.grpc.Attributes;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Server;
+import io.grpc.ServerTransportFilter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Compares many logical clients each building their own channel from {@link GrpcClientConfig#getChannelBuilder()}
+ * against the same clients sharing channels through {@link GrpcChannelManager}.  Every client makes a few calls, then
+ * the open server connections and live JVM threads are reported while all clients are still up.
+ *
+ * Run with {@code java GrpcChannelManagerBenchmark [clients] [servers] [callsPerClient]}, defaults 200, 3 and 10.
+ */
+public class GrpcChannelManagerBenchmark {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new StaticResolverProvider());
+  }
+
+  private static final AtomicInteger OPEN_CONNECTIONS = new AtomicInteger();
+
+  public static void main(String[] args) throws Exception {
+    int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    int serverCount = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    int callsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+    List<Server> servers = new ArrayList<>();
+    for (int i = 0; i < serverCount; i++) {
+      servers.add(startServer(i + 1));
+    }
+    String target = "static:///"
+        + servers.stream().map(server -> "127.0.0.1:" + server.getPort()).collect(Collectors.joining(","));
+    try {
+      System.out.printf("%-10s %8s %12s %14s %10s%n", "mode", "clients", "connections", "threadsAdded", "elapsedMs");
+      System.out.println(run("perClient", clients, callsPerClient, target));
+      System.out.println(run("shared", clients, callsPerClient, target));
+    } finally {
+      for (Server server : servers) {
+        server.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  private static String run(String mode, int clients, int callsPerClient, String target) throws Exception {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    int threadsBefore = threads.getThreadCount();
+    GrpcChannelManager manager = mode.equals("shared") ? new GrpcChannelManager() : null;
+    List<ManagedChannel> ownChannels = new ArrayList<>();
+    GrpcClientRequest request = GrpcClientRequest.newBuilder().setName("benchmark").build();
+    long start = System.nanoTime();
+    try {
+      for (int i = 0; i < clients; i++) {
+        // A fresh but equal config per client, as each logical client would build its own
+        GrpcClientConfig config = new GrpcClientConfig(target);
+        ManagedChannel channel;
+        if (manager != null) {
+          channel = manager.getChannel(config);
+        } else {
+          channel = config.getChannelBuilder().build();
+          ownChannels.add(channel);
+        }
+        GrpcClientTestGrpc.GrpcClientTestBlockingStub stub = GrpcClientTestGrpc.newBlockingStub(channel);
+        for (int call = 0; call < callsPerClient; call++) {
+          stub.sayHello(request);
+        }
+      }
+      long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      return String.format("%-10s %8d %12d %14d %10d",
+          mode, clients, OPEN_CONNECTIONS.get(), threads.getThreadCount() - threadsBefore, elapsedMs);
+    } finally {
+      for (ManagedChannel channel : ownChannels) {
+        channel.shutdown();
+      }
+      for (ManagedChannel channel : ownChannels) {
+        channel.awaitTermination(10, TimeUnit.SECONDS);
+      }
+      if (manager != null) {
+        manager.close();
+      }
+      waitForConnectionsToClose();
+    }
+  }
+
+  private static void waitForConnectionsToClose() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (OPEN_CONNECTIONS.get() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+  }
+
+  private static Server startServer(int serverNumber) throws Exception {
+    return Grpc.newServerBuilderForPort(0, InsecureServerCredentials.create())
+        .addService(new GrpcClientTestServer(serverNumber))
+        .addTransportFilter(new ServerTransportFilter() {
+          @Override
+          public Attributes transportReady(Attributes transportAttrs) {
+            OPEN_CONNECTIONS.incrementAndGet();
+            return transportAttrs;
+          }
+
+          @Override
+          public void transportTerminated(Attributes transportAttrs) {
+            OPEN_CONNECTIONS.decrementAndGet();
+          }
+        })
+        .build()
+        .start();
+  }
+}
@@ -4,7 +4,12 @@
 
 import com.google.common.collect.Iterables;
 import com.google.gson.Gson;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
 import io.grpc.internal.GrpcUtil;
 import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
 import java.util.HashMap;
@@ -26,6 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 public class GrpcClientConfig {
   public static final String DEFAULT_AUTHORITY = "default-authority.example.com";
   public static final String DEFAULT_TARGET = "default-target.example.com";
+  public static final int GRPC_MAXIMUM_MESSAGE_SIZE = 32 * 1024 * 1024;
 
   // Note that the "loadBalancingPolicy" is deprecated. See this doc for more examples of this config
   // https://github.com/grpc/grpc-java/blob/master/core/src/main/java/io/grpc/internal/ServiceConfigUtil.java#L271
@@ -53,9 +59,43 @@ public class GrpcClientConfig {
           }
           """, Map.class);
 
+  /**
+   * {@link #DEFAULT_SERVICE_CONFIG} with its load balancing policy replaced, keeping the retry method config.  The
+   * policy is one of "pick_first", "round_robin", or with grpc-xds on the classpath "weighted_round_robin" and
+   * "least_request_experimental".
+   */
+  public static Map<String, ?> serviceConfigWithPolicy(String policy) {
+    Map<String, Object> serviceConfig = new HashMap<>(DEFAULT_SERVICE_CONFIG);
+    serviceConfig.put("loadBalancingConfig", List.of(Map.of(policy, Map.of())));
+    return serviceConfig;
+  }
+
+  /**
+   * Transport settings for large messages.  The defaults leave gRPC's own behaviour in place.
+   * <ul>
+   *   <li>{@code flowControlWindow} - a fixed initial HTTP/2 window in bytes, which turns off gRPC's BDP based window
+   *   tuning.  A window at least as large as the messages lets one be sent without waiting on WINDOW_UPDATEs.</li>
+   *   <li>{@code compression} - compressor for every call on the channel, e.g. "gzip".  The server has to have the
+   *   matching decompressor.</li>
+   * </ul>
+   * There is no allocator option: grpc-netty already reads and writes through a pooled allocator that prefers direct
+   * buffers.  Parsing large responses without copying them is per method rather than per channel; see
+   * {@link ZeroCopyMessageMarshaller}.
+   */
+  @Value
+  @Builder
+  public static class MessageOptions {
+    public static final MessageOptions DEFAULT = MessageOptions.builder().build();
+
+    @Builder.Default int maxInboundMessageSize = GRPC_MAXIMUM_MESSAGE_SIZE;
+    Integer flowControlWindow;
+    String compression;
+  }
+
   String target;
   String authority;
   Map<String, ?> serviceConfig;
+  @Builder.Default MessageOptions messageOptions = MessageOptions.DEFAULT;
 
   // default constructor
   public GrpcClientConfig() {
@@ -74,18 +114,41 @@ public class GrpcClientConfig {
     this(target, authority, new Gson().fromJson(serviceConfig, Map.class));
   }
   public GrpcClientConfig(String target, String authority, Map<String, ?> serviceConfig) {
+    this(target, authority, serviceConfig, MessageOptions.DEFAULT);
+  }
+  public GrpcClientConfig(
+      String target, String authority, Map<String, ?> serviceConfig, MessageOptions messageOptions) {
     this.target = target;
     this.authority = authority;
     this.serviceConfig = serviceConfig;
+    this.messageOptions = messageOptions;
   }
 
 
   public ManagedChannelBuilder<? extends ManagedChannelBuilder<?>> getChannelBuilder() {
-    return NettyChannelBuilder.forTarget(getTarget())
+    return getNettyChannelBuilder();
+  }
+
+  // Exposed so GrpcChannelManager can put every channel on its shared event loop group and executor
+  public NettyChannelBuilder getNettyChannelBuilder() {
+    NettyChannelBuilder builder = NettyChannelBuilder.forTarget(getTarget())
         .overrideAuthority(computeAuthority(getAuthority()))
         .usePlaintext()
         .defaultServiceConfig(serviceConfig)
-        .maxInboundMessageSize(GRPC_MAXIMUM_MESSAGE_SIZE);
+        .maxInboundMessageSize(messageOptions.getMaxInboundMessageSize());
+    if (messageOptions.getFlowControlWindow() != null) {
+      builder.flowControlWindow(messageOptions.getFlowControlWindow());
+    }
+    if (messageOptions.getCompression() != null) {
+      builder.intercept(new ClientInterceptor() {
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+          return next.newCall(method, callOptions.withCompression(messageOptions.getCompression()));
+        }
+      });
+    }
+    return builder;
   }
 
 
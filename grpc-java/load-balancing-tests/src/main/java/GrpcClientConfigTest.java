@@ -7,7 +7,6 @@ import static org.junit.Assert.*;
 import com.google.gson.Gson;
 
 import io.grpc.*;
-import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,27 +34,6 @@ public class GrpcClientConfigTest  {
   private GrpcClientTestServer testServer1;
   private GrpcClientTestServer testServer2;
 
-  private static class GrpcClientTestServer extends GrpcClientTestGrpc.GrpcClientTestImplBase {
-    private final int serverNumber;
-    boolean shouldFail = false;
-    public GrpcClientTestServer(int serverNumber) {
-      this.serverNumber = serverNumber;
-    }
-
-    @Override
-    public void sayHello(GrpcClientRequest request, StreamObserver<GrpcClientResponse> responseObserver) {
-      if (shouldFail) {
-        responseObserver.onError(Status.UNAVAILABLE.withDescription("We are a failing server").asRuntimeException());
-      }else {
-        responseObserver.onNext(GrpcClientResponse.newBuilder()
-                .setMessage("hello '" + request.getName() + "' from the server " + serverNumber + "!")
-                .build());
-        responseObserver.onCompleted();
-
-      }
-    }
-  }
-
   private GrpcClientConfig config;
   Server server1;
   Server server2;
@@ -148,6 +126,26 @@ public class GrpcClientConfigTest  {
   }
 
 
+  @Test
+  public void channelManagerSharesOneChannelPerConfig() {
+    try (GrpcChannelManager manager = new GrpcChannelManager()) {
+      ManagedChannel channel = manager.getChannel(config);
+      // An equal config built elsewhere gets the same channel, a different target gets its own
+      assertSame(channel, manager.getChannel(new GrpcClientConfig("static:///127.0.0.1:9802,127.0.0.1:9803")));
+      assertNotSame(channel, manager.getChannel(new GrpcClientConfig("static:///127.0.0.1:9803")));
+      assertEquals(2, manager.openChannels());
+
+      List<String> responses = getSomeResponses(GrpcClientTestGrpc.newBlockingStub(channel));
+      assertTrue(responses.contains("hello 'I am a teapot!' from the server 1!"));
+      assertTrue(responses.contains("hello 'I am a teapot!' from the server 2!"));
+      assertEquals(Integer.valueOf(2), manager.subchannelStates().get(ConnectivityState.READY));
+
+      manager.close();
+      assertTrue(channel.isShutdown());
+      assertEquals(0, manager.openChannels());
+    }
+  }
+
   private List<String> getSomeResponses(GrpcClientTestGrpc.GrpcClientTestBlockingStub stub) {
     List<String> responses = new ArrayList<>();
     for (int i = 0; i < 10; i++) {
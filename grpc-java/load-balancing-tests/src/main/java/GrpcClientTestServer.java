@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The {@code GrpcClientTest} service the tests and benchmarks run against.  Each instance answers with its server
+ * number so callers can see which backend served them, and counts the requests it received.  {@link #setFaults} makes
+ * it slow or failing: latency is delayed off the server threads, so slow calls do not hold up others.
+ */
+public class GrpcClientTestServer extends GrpcClientTestGrpc.GrpcClientTestImplBase {
+  private static final ScheduledExecutorService DELAYS = Executors.newScheduledThreadPool(
+      2, new ThreadFactoryBuilder().setNameFormat("test-server-delay-%d").setDaemon(true).build());
+
+  private final int serverNumber;
+  private final AtomicLong requests = new AtomicLong();
+  volatile boolean shouldFail = false;
+  private volatile Faults faults = Faults.NONE;
+  private final HealthStatusManager health = new HealthStatusManager();
+
+  /**
+   * Every call waits {@code latencyMs} plus a uniform {@code 0..jitterMs}, or {@code slowLatencyMs} for a
+   * {@code slowFraction} of calls, then fails with {@code errorCode} for an {@code errorRate} fraction of calls.
+   */
+  @Value
+  @Builder
+  public static class Faults {
+    public static final Faults NONE = Faults.builder().build();
+
+    long latencyMs;
+    long jitterMs;
+    double slowFraction;
+    long slowLatencyMs;
+    double errorRate;
+    @Builder.Default Status.Code errorCode = Status.Code.UNAVAILABLE;
+  }
+
+  public GrpcClientTestServer(int serverNumber) {
+    this.serverNumber = serverNumber;
+    health.setStatus(GrpcClientTestGrpc.SERVICE_NAME, HealthCheckResponse.ServingStatus.SERVING);
+  }
+
+  /**
+   * Starts a plaintext server for this service and its grpc.health.v1 endpoint on the given port, 0 picking a free
+   * one.  Responses are compressed the same way as the request that asked for them.
+   */
+  public Server start(int port) throws IOException {
+    return Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+        .addService(ServerInterceptors.intercept(this, new MirrorCompression()))
+        .addService(health.getHealthService())
+        .maxInboundMessageSize(GrpcClientConfig.GRPC_MAXIMUM_MESSAGE_SIZE)
+        .build()
+        .start();
+  }
+
+  private static class MirrorCompression implements ServerInterceptor {
+    private static final Metadata.Key<String> ENCODING =
+        Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+      String encoding = headers.get(ENCODING);
+      if (encoding != null && !encoding.equals("identity")) {
+        call.setCompression(encoding);
+      }
+      return next.startCall(call, headers);
+    }
+  }
+
+  /**
+   * Reports {@code GrpcClientTest} as SERVING or NOT_SERVING on the health endpoint.  Calls are still answered.
+   */
+  public void setServing(boolean serving) {
+    health.setStatus(GrpcClientTestGrpc.SERVICE_NAME,
+        serving ? HealthCheckResponse.ServingStatus.SERVING : HealthCheckResponse.ServingStatus.NOT_SERVING);
+  }
+
+  public int getServerNumber() {
+    return serverNumber;
+  }
+
+  public void setFaults(Faults faults) {
+    this.faults = faults;
+  }
+
+  public long requestCount() {
+    return requests.get();
+  }
+
+  public void resetRequestCount() {
+    requests.set(0);
+  }
+
+  // Streaming calls are counted per message and do not inject faults
+  @Override
+  public StreamObserver<GrpcClientRequest> sayHelloClientStream(
+      StreamObserver<GrpcClientBatchResponse> responseObserver) {
+    GrpcClientBatchResponse.Builder batch = GrpcClientBatchResponse.newBuilder();
+    return new StreamObserver<>() {
+      @Override
+      public void onNext(GrpcClientRequest request) {
+        requests.incrementAndGet();
+        batch.addResponses(hello(request));
+      }
+
+      @Override
+      public void onError(Throwable t) {
+      }
+
+      @Override
+      public void onCompleted() {
+        responseObserver.onNext(batch.build());
+        responseObserver.onCompleted();
+      }
+    };
+  }
+
+  @Override
+  public StreamObserver<GrpcClientRequest> sayHelloBidi(StreamObserver<GrpcClientResponse> responseObserver) {
+    return new StreamObserver<>() {
+      @Override
+      public void onNext(GrpcClientRequest request) {
+        requests.incrementAndGet();
+        responseObserver.onNext(hello(request));
+      }
+
+      @Override
+      public void onError(Throwable t) {
+      }
+
+      @Override
+      public void onCompleted() {
+        responseObserver.onCompleted();
+      }
+    };
+  }
+
+  private GrpcClientResponse hello(GrpcClientRequest request) {
+    return GrpcClientResponse.newBuilder()
+        .setMessage("hello '" + request.getName() + "' from the server " + serverNumber + "!")
+        .setId(request.getId())
+        .setPayload(request.getPayload())
+        .build();
+  }
+
+  @Override
+  public void sayHello(GrpcClientRequest request, StreamObserver<GrpcClientResponse> responseObserver) {
+    requests.incrementAndGet();
+    if (shouldFail) {
+      responseObserver.onError(Status.UNAVAILABLE.withDescription("We are a failing server").asRuntimeException());
+      return;
+    }
+    Faults current = faults;
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long delayMs = random.nextDouble() < current.getSlowFraction()
+        ? current.getSlowLatencyMs()
+        : current.getLatencyMs() + (current.getJitterMs() > 0 ? random.nextLong(current.getJitterMs() + 1) : 0);
+    boolean fail = random.nextDouble() < current.getErrorRate();
+    ServerCallStreamObserver<GrpcClientResponse> call = (ServerCallStreamObserver<GrpcClientResponse>) responseObserver;
+    // Hedging cancels the losing copies; without a handler, responding to them would throw
+    call.setOnCancelHandler(() -> {});
+    Runnable respond = () -> {
+      if (call.isCancelled()) {
+        return;
+      }
+      if (fail) {
+        call.onError(current.getErrorCode().toStatus().withDescription("Injected failure").asRuntimeException());
+      } else {
+        call.onNext(hello(request));
+        call.onCompleted();
+      }
+    };
+    if (delayMs > 0) {
+      DELAYS.schedule(respond, delayMs, TimeUnit.MILLISECONDS);
+    } else {
+      respond.run();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import com.google.protobuf.ByteString;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Server;
+import io.grpc.stub.ClientCalls;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Echoes payloads from 1KB to 16MB through a {@link GrpcClientTestServer} with each
+ * {@link GrpcClientConfig.MessageOptions} setting and with {@link ZeroCopyMessageMarshaller} responses, and reports
+ * throughput (both directions), bytes allocated per call and the collection time the garbage collectors reported
+ * during the run.  The server shares the JVM, so allocation and GC cover both ends of the call.
+ *
+ * Settings are system properties: {@code large.sizes} (1024,65536,1048576,16777216), {@code large.bytesPerRun}
+ * (512MB, the number of calls per size is derived from it) and {@code large.payload} (random|text; gzip only helps
+ * with text).
+ */
+public class GrpcLargeMessageBenchmark {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new StaticResolverProvider());
+  }
+
+  private static final List<Integer> SIZES =
+      Arrays.stream(System.getProperty("large.sizes", "1024,65536,1048576,16777216").split("\\s*,\\s*"))
+          .map(Integer::valueOf)
+          .toList();
+  private static final long BYTES_PER_RUN = Long.getLong("large.bytesPerRun", 512L * 1024 * 1024);
+  private static final String PAYLOAD = System.getProperty("large.payload", "random");
+
+  public static void main(String[] args) throws Exception {
+    Server server = new GrpcClientTestServer(1).start(0);
+    String target = "static:///127.0.0.1:" + server.getPort();
+    Map<String, GrpcClientConfig.MessageOptions> settings = new LinkedHashMap<>();
+    settings.put("default", GrpcClientConfig.MessageOptions.DEFAULT);
+    settings.put("window16MB", GrpcClientConfig.MessageOptions.builder().flowControlWindow(16 * 1024 * 1024).build());
+    settings.put("gzip", GrpcClientConfig.MessageOptions.builder().compression("gzip").build());
+    settings.put("zeroCopy", GrpcClientConfig.MessageOptions.DEFAULT);
+    settings.put("combined", GrpcClientConfig.MessageOptions.builder().flowControlWindow(16 * 1024 * 1024).build());
+    try {
+      System.out.printf("%-13s %10s %8s %10s %16s %10s%n",
+          "setting", "size", "calls", "MB/sec", "allocBytes/call", "gcMs");
+      for (Map.Entry<String, GrpcClientConfig.MessageOptions> setting : settings.entrySet()) {
+        boolean zeroCopy = setting.getKey().equals("zeroCopy") || setting.getKey().equals("combined");
+        ManagedChannel channel = new GrpcClientConfig(target, GrpcClientConfig.DEFAULT_AUTHORITY,
+            GrpcClientConfig.DEFAULT_SERVICE_CONFIG, setting.getValue()).getChannelBuilder().build();
+        try {
+          for (int size : SIZES) {
+            System.out.println(run(setting.getKey(), channel, zeroCopy, size));
+          }
+        } finally {
+          channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        }
+      }
+    } finally {
+      server.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private static String run(String setting, ManagedChannel channel, boolean zeroCopy, int size) {
+    ZeroCopyMessageMarshaller<GrpcClientResponse> responses =
+        new ZeroCopyMessageMarshaller<>(GrpcClientResponse.getDefaultInstance());
+    MethodDescriptor<GrpcClientRequest, GrpcClientResponse> method = zeroCopy
+        ? ZeroCopyMessageMarshaller.forResponses(GrpcClientTestGrpc.getSayHelloMethod(), responses)
+        : GrpcClientTestGrpc.getSayHelloMethod();
+    GrpcClientRequest request =
+        GrpcClientRequest.newBuilder().setName("large").setPayload(payload(size)).build();
+    int calls = (int) Math.max(10, BYTES_PER_RUN / size);
+
+    // Warm up with a tenth of the calls, then measure
+    for (int i = 0; i < Math.max(1, calls / 10); i++) {
+      call(channel, method, responses, zeroCopy, request, size);
+    }
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long allocatedBefore = allocatedBytes(threads);
+    long gcBefore = gcMillis();
+    long start = System.nanoTime();
+    for (int i = 0; i < calls; i++) {
+      call(channel, method, responses, zeroCopy, request, size);
+    }
+    long wall = System.nanoTime() - start;
+    long allocated = allocatedBytes(threads) - allocatedBefore;
+    return String.format("%-13s %10d %8d %10.1f %16d %10d", setting, size, calls,
+        2.0 * size * calls / (1024 * 1024) / (wall / 1e9), allocated / calls, gcMillis() - gcBefore);
+  }
+
+  private static void call(ManagedChannel channel, MethodDescriptor<GrpcClientRequest, GrpcClientResponse> method,
+      ZeroCopyMessageMarshaller<GrpcClientResponse> responses, boolean zeroCopy, GrpcClientRequest request, int size) {
+    GrpcClientResponse response = ClientCalls.blockingUnaryCall(channel, method, CallOptions.DEFAULT, request);
+    if (response.getPayload().size() != size) {
+      throw new IllegalStateException("Expected " + size + " bytes back, got " + response.getPayload().size());
+    }
+    if (zeroCopy) {
+      responses.release(response);
+    }
+  }
+
+  private static ByteString payload(int size) {
+    byte[] bytes = new byte[size];
+    if (PAYLOAD.equals("text")) {
+      byte[] text = "the quick brown fox jumps over the lazy dog ".getBytes();
+      for (int i = 0; i < size; i++) {
+        bytes[i] = text[i % text.length];
+      }
+    } else {
+      new Random(42).nextBytes(bytes);
+    }
+    return ByteString.copyFrom(bytes);
+  }
+
+  // Threads that exit during the run take their counts with them; the transport threads here are long lived
+  private static long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+    return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds())).filter(bytes -> bytes > 0).sum();
+  }
+
+  private static long gcMillis() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+        .filter(millis -> millis > 0)
+        .sum();
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.ManagedChannel;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop throughput and tail latency of {@code SayHello} through a {@link GrpcClientConfig} channel, for each load
+ * balancing policy in turn.  N loopback {@link GrpcClientTestServer}s are started and {@code lb.concurrency} calls are
+ * kept in flight through the async or future stub; each policy gets a fresh channel, a warm-up and a measured run.
+ * Reports QPS, p50/p99/p999 and the share of requests each server received.
+ *
+ * Settings are system properties: {@code lb.servers} (3), {@code lb.concurrency} (64), {@code lb.stub} (async|future),
+ * {@code lb.warmupSeconds} (5), {@code lb.measureSeconds} (20) and {@code lb.policies}
+ * (pick_first,round_robin,weighted_round_robin,least_request_experimental).  The last two need grpc-xds on the
+ * classpath, and without ORCA load reports from the servers weighted_round_robin weighs every backend equally.
+ *
+ * {@code lb.failingServers} (0) makes that many servers fail every call with UNAVAILABLE, which the default retry
+ * policy then covers for; {@code lb.outlierDetection=true} wraps each policy in failure percentage ejection.  The
+ * attempts column is server requests per call, so it shows the retry traffic ejection saves.
+ */
+public class GrpcLoadBalancingBenchmark {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new StaticResolverProvider());
+  }
+
+  private static final int SERVERS = Integer.getInteger("lb.servers", 3);
+  private static final int CONCURRENCY = Integer.getInteger("lb.concurrency", 64);
+  private static final String STUB = System.getProperty("lb.stub", "async");
+  private static final long WARMUP_SECONDS = Long.getLong("lb.warmupSeconds", 5);
+  private static final long MEASURE_SECONDS = Long.getLong("lb.measureSeconds", 20);
+  private static final int FAILING_SERVERS = Integer.getInteger("lb.failingServers", 0);
+  private static final boolean OUTLIER_DETECTION = Boolean.getBoolean("lb.outlierDetection");
+  private static final List<String> POLICIES = Arrays.asList(System.getProperty("lb.policies",
+      "pick_first,round_robin,weighted_round_robin,least_request_experimental").split("\\s*,\\s*"));
+
+  public static void main(String[] args) throws Exception {
+    List<GrpcClientTestServer> services = new ArrayList<>();
+    List<Server> servers = new ArrayList<>();
+    for (int i = 0; i < SERVERS; i++) {
+      GrpcClientTestServer service = new GrpcClientTestServer(i + 1);
+      if (i >= SERVERS - FAILING_SERVERS) {
+        service.setFaults(GrpcClientTestServer.Faults.builder().errorRate(1).build());
+      }
+      services.add(service);
+      servers.add(service.start(0));
+    }
+    String target = "static:///"
+        + servers.stream().map(server -> "127.0.0.1:" + server.getPort()).collect(Collectors.joining(","));
+    try {
+      System.out.printf("%-28s %-7s %10s %9s %9s %9s %8s %9s  %s%n",
+          "policy", "stub", "qps", "p50Ms", "p99Ms", "p999Ms", "errors", "attempts", "distribution");
+      for (String policy : POLICIES) {
+        System.out.println(run(policy, target, services));
+      }
+    } finally {
+      for (Server server : servers) {
+        server.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  private static String run(String policy, String target, List<GrpcClientTestServer> services) throws Exception {
+    GrpcClientConfig config = new GrpcClientConfig(target, GrpcClientConfig.DEFAULT_AUTHORITY, serviceConfig(policy));
+    ManagedChannel channel;
+    try {
+      channel = config.getChannelBuilder().build();
+    } catch (IllegalArgumentException e) {
+      // The channel rejects a default service config naming a policy it has no provider for
+      return String.format("%-28s %-7s skipped: %s", policy, STUB, e.getMessage());
+    }
+    try {
+      drive(channel, WARMUP_SECONDS, new LatencyRecorder(0));
+      services.forEach(GrpcClientTestServer::resetRequestCount);
+      LatencyRecorder latency = new LatencyRecorder(5_000_000);
+      long start = System.nanoTime();
+      drive(channel, MEASURE_SECONDS, latency);
+      long wall = System.nanoTime() - start;
+
+      long served = services.stream().mapToLong(GrpcClientTestServer::requestCount).sum();
+      String distribution = services.stream()
+          .map(service -> String.format("s%d=%.1f%%", service.getServerNumber(),
+              served == 0 ? 0.0 : 100.0 * service.requestCount() / served))
+          .collect(Collectors.joining(" "));
+      long calls = latency.count() + latency.errors.get();
+      return String.format("%-28s %-7s %10.0f %9.3f %9.3f %9.3f %8d %9.3f  %s", policy, STUB,
+          latency.count() * 1e9 / wall, latency.percentileMs(50), latency.percentileMs(99), latency.percentileMs(99.9),
+          latency.errors.get(), calls == 0 ? 0.0 : (double) served / calls, distribution);
+    } finally {
+      channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private static Map<String, ?> serviceConfig(String policy) {
+    if (!OUTLIER_DETECTION) {
+      return GrpcClientConfig.serviceConfigWithPolicy(policy);
+    }
+    // The same retries as DEFAULT_SERVICE_CONFIG, under an ejecting parent policy
+    return GrpcServiceConfig.builder()
+        .loadBalancingPolicy(policy)
+        .methodConfig(GrpcServiceConfig.MethodConfig.builder()
+            .retryPolicy(GrpcServiceConfig.RetryPolicy.builder()
+                .retryableStatusCode(Status.Code.UNAVAILABLE)
+                .retryableStatusCode(Status.Code.UNKNOWN)
+                .build())
+            .build())
+        .outlierDetection(GrpcServiceConfig.OutlierDetection.builder()
+            .interval(Duration.ofSeconds(1))
+            .failurePercentageEjection(GrpcServiceConfig.FailurePercentageEjection.builder()
+                .threshold(50)
+                .minimumHosts(Math.min(SERVERS, 5))
+                .requestVolume(20)
+                .build())
+            .build())
+        .build()
+        .toMap();
+  }
+
+  // Keeps CONCURRENCY calls in flight until the deadline; each completion issues the next call
+  private static void drive(ManagedChannel channel, long seconds, LatencyRecorder latency) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    CountDownLatch done = new CountDownLatch(CONCURRENCY);
+    GrpcClientRequest request = GrpcClientRequest.newBuilder().setName("benchmark").build();
+    GrpcClientTestGrpc.GrpcClientTestStub asyncStub = GrpcClientTestGrpc.newStub(channel);
+    GrpcClientTestGrpc.GrpcClientTestFutureStub futureStub = GrpcClientTestGrpc.newFutureStub(channel);
+    for (int i = 0; i < CONCURRENCY; i++) {
+      new Runnable() {
+        @Override
+        public void run() {
+          if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+          }
+          long start = System.nanoTime();
+          Runnable next = this;
+          if (STUB.equals("future")) {
+            Futures.addCallback(futureStub.sayHello(request), new FutureCallback<>() {
+              @Override
+              public void onSuccess(GrpcClientResponse response) {
+                latency.record(System.nanoTime() - start);
+                next.run();
+              }
+
+              @Override
+              public void onFailure(Throwable t) {
+                latency.errors.incrementAndGet();
+                next.run();
+              }
+            }, MoreExecutors.directExecutor());
+          } else {
+            asyncStub.sayHello(request, new StreamObserver<>() {
+              @Override
+              public void onNext(GrpcClientResponse response) {
+              }
+
+              @Override
+              public void onError(Throwable t) {
+                latency.errors.incrementAndGet();
+                next.run();
+              }
+
+              @Override
+              public void onCompleted() {
+                latency.record(System.nanoTime() - start);
+                next.run();
+              }
+            });
+          }
+        }
+      }.run();
+    }
+    done.await();
+  }
+
+  /**
+   * Fixed-capacity latency log; samples past the capacity are counted but not kept.
+   */
+  static class LatencyRecorder {
+    private final long[] samples;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong count = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+
+    LatencyRecorder(int capacity) {
+      samples = new long[capacity];
+    }
+
+    void record(long nanos) {
+      count.incrementAndGet();
+      int slot = next.getAndIncrement();
+      if (slot < samples.length) {
+        samples[slot] = nanos;
+      }
+    }
+
+    long count() {
+      return count.get();
+    }
+
+    double percentileMs(double percentile) {
+      int kept = Math.min(next.get(), samples.length);
+      if (kept == 0) {
+        return 0;
+      }
+      long[] sorted = Arrays.copyOf(samples, kept);
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100 * kept) - 1;
+      return sorted[Math.max(0, Math.min(index, kept - 1))] / 1e6;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import com.google.common.base.Preconditions;
+import io.grpc.Status;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Builds the service config map {@link GrpcClientConfig} hands to the channel, instead of writing the JSON by hand.
+ * Numbers are emitted as doubles and durations as "1.5s" strings, which is what the channel's parser expects.  See
+ * https://github.com/grpc/grpc/blob/master/doc/service_config.md for the fields.
+ *
+ * Each method config carries either a retry policy or a hedging policy, never both.  Retry throttling applies to the
+ * whole channel and limits retries and hedges alike: every failed attempt takes a token, every success returns
+ * {@code tokenRatio} of one, and no further attempts are made while fewer than half of {@code maxTokens} remain.
+ *
+ * With {@code outlierDetection} set, the policy runs as the child of "outlier_detection_experimental", which ejects
+ * backends whose calls fail more than their peers'.  With {@code healthCheckServiceName} set, subchannels watch that
+ * service on the backend's grpc.health.v1 endpoint and leave the rotation while it is not SERVING.  Health checking
+ * needs grpc-services on the classpath and is only honoured by round_robin.
+ */
+@Value
+@Builder
+public class GrpcServiceConfig {
+  @Builder.Default String loadBalancingPolicy = "round_robin";
+  @Singular List<MethodConfig> methodConfigs;
+  RetryThrottling retryThrottling;
+  OutlierDetection outlierDetection;
+  String healthCheckServiceName;
+
+  @Value
+  @Builder
+  public static class MethodConfig {
+    // Empty service and method match every method of the channel
+    String service;
+    String method;
+    @Builder.Default boolean waitForReady = true;
+    Duration timeout;
+    RetryPolicy retryPolicy;
+    HedgingPolicy hedgingPolicy;
+  }
+
+  @Value
+  @Builder
+  public static class RetryPolicy {
+    @Builder.Default int maxAttempts = 5;
+    @Builder.Default Duration initialBackoff = Duration.ofMillis(100);
+    @Builder.Default Duration maxBackoff = Duration.ofSeconds(1);
+    @Builder.Default double backoffMultiplier = 2;
+    @Singular List<Status.Code> retryableStatusCodes;
+  }
+
+  /**
+   * Sends up to {@code maxAttempts} copies of a call, {@code hedgingDelay} apart, and takes the first response.  A
+   * copy failing with a non-fatal code lets the next one go out immediately; any other failure ends the call.
+   */
+  @Value
+  @Builder
+  public static class HedgingPolicy {
+    @Builder.Default int maxAttempts = 3;
+    @Builder.Default Duration hedgingDelay = Duration.ofMillis(50);
+    @Singular List<Status.Code> nonFatalStatusCodes;
+  }
+
+  @Value
+  @Builder
+  public static class RetryThrottling {
+    @Builder.Default int maxTokens = 10;
+    @Builder.Default double tokenRatio = 0.1;
+  }
+
+  /**
+   * Ejection runs every {@code interval}; an ejected backend stays out for {@code baseEjectionTime} times the number
+   * of times it has been ejected, capped at {@code maxEjectionTime}.  At least one backend can always be ejected, then
+   * no more once {@code maxEjectionPercent} are out.
+   */
+  @Value
+  @Builder
+  public static class OutlierDetection {
+    @Builder.Default Duration interval = Duration.ofSeconds(10);
+    @Builder.Default Duration baseEjectionTime = Duration.ofSeconds(30);
+    @Builder.Default Duration maxEjectionTime = Duration.ofSeconds(300);
+    @Builder.Default int maxEjectionPercent = 10;
+    SuccessRateEjection successRateEjection;
+    FailurePercentageEjection failurePercentageEjection;
+  }
+
+  /**
+   * Ejects backends whose success rate is more than {@code stdevFactor / 1000} standard deviations below the mean.
+   */
+  @Value
+  @Builder
+  public static class SuccessRateEjection {
+    @Builder.Default int stdevFactor = 1900;
+    @Builder.Default int enforcementPercentage = 100;
+    @Builder.Default int minimumHosts = 5;
+    @Builder.Default int requestVolume = 100;
+  }
+
+  /**
+   * Ejects backends where more than {@code threshold} percent of calls failed in the last interval.
+   */
+  @Value
+  @Builder
+  public static class FailurePercentageEjection {
+    @Builder.Default int threshold = 85;
+    @Builder.Default int enforcementPercentage = 100;
+    @Builder.Default int minimumHosts = 5;
+    @Builder.Default int requestVolume = 50;
+  }
+
+  public Map<String, ?> toMap() {
+    Map<String, Object> serviceConfig = new LinkedHashMap<>();
+    serviceConfig.put("loadBalancingConfig", loadBalancingConfig());
+    if (healthCheckServiceName != null) {
+      serviceConfig.put("healthCheckConfig", Map.of("serviceName", healthCheckServiceName));
+    }
+    List<Map<String, ?>> methods = new ArrayList<>();
+    for (MethodConfig methodConfig : methodConfigs) {
+      methods.add(toMap(methodConfig));
+    }
+    serviceConfig.put("methodConfig", methods);
+    if (retryThrottling != null) {
+      serviceConfig.put("retryThrottling",
+          Map.of("maxTokens", (double) retryThrottling.getMaxTokens(), "tokenRatio", retryThrottling.getTokenRatio()));
+    }
+    return serviceConfig;
+  }
+
+  private List<Map<String, ?>> loadBalancingConfig() {
+    List<Map<String, ?>> policy = List.of(Map.of(loadBalancingPolicy, Map.of()));
+    if (outlierDetection == null) {
+      return policy;
+    }
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put("interval", seconds(outlierDetection.getInterval()));
+    config.put("baseEjectionTime", seconds(outlierDetection.getBaseEjectionTime()));
+    config.put("maxEjectionTime", seconds(outlierDetection.getMaxEjectionTime()));
+    config.put("maxEjectionPercent", (double) outlierDetection.getMaxEjectionPercent());
+    SuccessRateEjection successRate = outlierDetection.getSuccessRateEjection();
+    if (successRate != null) {
+      config.put("successRateEjection", Map.of(
+          "stdevFactor", (double) successRate.getStdevFactor(),
+          "enforcementPercentage", (double) successRate.getEnforcementPercentage(),
+          "minimumHosts", (double) successRate.getMinimumHosts(),
+          "requestVolume", (double) successRate.getRequestVolume()));
+    }
+    FailurePercentageEjection failurePercentage = outlierDetection.getFailurePercentageEjection();
+    if (failurePercentage != null) {
+      config.put("failurePercentageEjection", Map.of(
+          "threshold", (double) failurePercentage.getThreshold(),
+          "enforcementPercentage", (double) failurePercentage.getEnforcementPercentage(),
+          "minimumHosts", (double) failurePercentage.getMinimumHosts(),
+          "requestVolume", (double) failurePercentage.getRequestVolume()));
+    }
+    config.put("childPolicy", policy);
+    return List.of(Map.of("outlier_detection_experimental", config));
+  }
+
+  private static Map<String, ?> toMap(MethodConfig methodConfig) {
+    Preconditions.checkArgument(methodConfig.getRetryPolicy() == null || methodConfig.getHedgingPolicy() == null,
+        "A method config can have a retryPolicy or a hedgingPolicy, not both");
+    Map<String, Object> method = new LinkedHashMap<>();
+    Map<String, Object> name = new LinkedHashMap<>();
+    if (methodConfig.getService() != null) {
+      name.put("service", methodConfig.getService());
+      if (methodConfig.getMethod() != null) {
+        name.put("method", methodConfig.getMethod());
+      }
+    }
+    method.put("name", List.of(name));
+    method.put("waitForReady", methodConfig.isWaitForReady());
+    if (methodConfig.getTimeout() != null) {
+      method.put("timeout", seconds(methodConfig.getTimeout()));
+    }
+    RetryPolicy retry = methodConfig.getRetryPolicy();
+    if (retry != null) {
+      method.put("retryPolicy", Map.of(
+          "maxAttempts", (double) retry.getMaxAttempts(),
+          "initialBackoff", seconds(retry.getInitialBackoff()),
+          "maxBackoff", seconds(retry.getMaxBackoff()),
+          "backoffMultiplier", retry.getBackoffMultiplier(),
+          "retryableStatusCodes", codeNames(retry.getRetryableStatusCodes())));
+    }
+    HedgingPolicy hedging = methodConfig.getHedgingPolicy();
+    if (hedging != null) {
+      method.put("hedgingPolicy", Map.of(
+          "maxAttempts", (double) hedging.getMaxAttempts(),
+          "hedgingDelay", seconds(hedging.getHedgingDelay()),
+          "nonFatalStatusCodes", codeNames(hedging.getNonFatalStatusCodes())));
+    }
+    return method;
+  }
+
+  private static String seconds(Duration duration) {
+    return BigDecimal.valueOf(duration.toNanos(), 9).stripTrailingZeros().toPlainString() + "s";
+  }
+
+  private static List<String> codeNames(List<Status.Code> codes) {
+    return codes.stream().map(Status.Code::name).toList();
+  }
+}
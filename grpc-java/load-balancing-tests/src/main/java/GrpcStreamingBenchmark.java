@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import io.grpc.ManagedChannel;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Server;
+import io.grpc.stub.StreamObserver;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Unary {@code SayHello} against the same requests grouped by {@link GrpcBatchingClient} into client-streaming batches
+ * and bidi streams, all through one {@link GrpcClientConfig} channel.  {@code stream.concurrency} requests are kept in
+ * flight; each mode reports messages per second, process CPU microseconds per message and per-message latency.  The
+ * servers run in the same JVM, so CPU covers both sides of the call.
+ *
+ * Settings are system properties: {@code stream.servers} (2), {@code stream.concurrency} (256),
+ * {@code stream.batchSize} (64), {@code stream.windowMicros} (1000), {@code stream.warmupSeconds} (5) and
+ * {@code stream.measureSeconds} (20).
+ */
+public class GrpcStreamingBenchmark {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new StaticResolverProvider());
+  }
+
+  private static final int SERVERS = Integer.getInteger("stream.servers", 2);
+  private static final int CONCURRENCY = Integer.getInteger("stream.concurrency", 256);
+  private static final int BATCH_SIZE = Integer.getInteger("stream.batchSize", 64);
+  private static final long WINDOW_MICROS = Long.getLong("stream.windowMicros", 1000);
+  private static final long WARMUP_SECONDS = Long.getLong("stream.warmupSeconds", 5);
+  private static final long MEASURE_SECONDS = Long.getLong("stream.measureSeconds", 20);
+
+  public static void main(String[] args) throws Exception {
+    List<Server> servers = new ArrayList<>();
+    for (int i = 0; i < SERVERS; i++) {
+      servers.add(new GrpcClientTestServer(i + 1).start(0));
+    }
+    String target = "static:///"
+        + servers.stream().map(server -> "127.0.0.1:" + server.getPort()).collect(Collectors.joining(","));
+    ManagedChannel channel = new GrpcClientConfig(target).getChannelBuilder().build();
+    try {
+      System.out.printf("%-14s %12s %12s %9s %9s %8s%n", "mode", "msgs/sec", "cpuUs/msg", "p50Ms", "p99Ms", "errors");
+      GrpcClientTestGrpc.GrpcClientTestStub unary = GrpcClientTestGrpc.newStub(channel);
+      System.out.println(run("unary", request -> {
+        CompletableFuture<GrpcClientResponse> response = new CompletableFuture<>();
+        unary.sayHello(request, new StreamObserver<>() {
+          @Override
+          public void onNext(GrpcClientResponse value) {
+            response.complete(value);
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            response.completeExceptionally(t);
+          }
+
+          @Override
+          public void onCompleted() {
+          }
+        });
+        return response;
+      }));
+      for (GrpcBatchingClient.Mode mode : GrpcBatchingClient.Mode.values()) {
+        try (GrpcBatchingClient client = new GrpcBatchingClient(channel, GrpcBatchingClient.Settings.builder()
+            .mode(mode)
+            .maxBatchSize(BATCH_SIZE)
+            .windowMicros(WINDOW_MICROS)
+            .build())) {
+          System.out.println(run(mode.name().toLowerCase(), client::sayHello));
+        }
+      }
+    } finally {
+      channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+      for (Server server : servers) {
+        server.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  private static String run(String mode, Function<GrpcClientRequest, CompletableFuture<GrpcClientResponse>> call)
+      throws InterruptedException {
+    com.sun.management.OperatingSystemMXBean os =
+        (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    drive(call, WARMUP_SECONDS, new GrpcLoadBalancingBenchmark.LatencyRecorder(0));
+    GrpcLoadBalancingBenchmark.LatencyRecorder latency = new GrpcLoadBalancingBenchmark.LatencyRecorder(20_000_000);
+    long cpuBefore = os.getProcessCpuTime();
+    long start = System.nanoTime();
+    drive(call, MEASURE_SECONDS, latency);
+    long wall = System.nanoTime() - start;
+    long messages = Math.max(1, latency.count());
+    return String.format("%-14s %12.0f %12.2f %9.3f %9.3f %8d", mode, latency.count() * 1e9 / wall,
+        (os.getProcessCpuTime() - cpuBefore) / 1e3 / messages, latency.percentileMs(50), latency.percentileMs(99),
+        latency.errors.get());
+  }
+
+  // Keeps CONCURRENCY requests in flight until the deadline; each completion issues the next request
+  private static void drive(Function<GrpcClientRequest, CompletableFuture<GrpcClientResponse>> call, long seconds,
+      GrpcLoadBalancingBenchmark.LatencyRecorder latency) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    CountDownLatch done = new CountDownLatch(CONCURRENCY);
+    GrpcClientRequest request = GrpcClientRequest.newBuilder().setName("benchmark").build();
+    for (int i = 0; i < CONCURRENCY; i++) {
+      new Runnable() {
+        @Override
+        public void run() {
+          if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+          }
+          long start = System.nanoTime();
+          // Async so a batch completing many futures at once does not recurse through the whole loop
+          call.apply(request).whenCompleteAsync((response, error) -> {
+            if (error == null) {
+              latency.record(System.nanoTime() - start);
+            } else {
+              latency.errors.incrementAndGet();
+            }
+            run();
+          });
+        }
+      }.run();
+    }
+    done.await();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import static org.junit.Assert.*;
+
+import io.grpc.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs {@link GrpcServiceConfig} hedging and retry throttling against fault-injecting {@link GrpcClientTestServer}s:
+ * hedging should cut the tail a slow minority of calls causes, and throttling should stop retries from multiplying
+ * the load once every backend is failing.
+ */
+public class HedgingAndThrottlingTest {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new StaticResolverProvider());
+  }
+
+  private static final int CALLS = 300;
+
+  private final List<GrpcClientTestServer> services = new ArrayList<>();
+  private final List<Server> servers = new ArrayList<>();
+  private String target;
+  private GrpcClientRequest request = GrpcClientRequest.newBuilder().setName("I am a teapot!").build();
+
+  @Before
+  public void setup() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      GrpcClientTestServer service = new GrpcClientTestServer(i);
+      services.add(service);
+      servers.add(service.start(0));
+    }
+    target = "static:///"
+        + servers.stream().map(server -> "127.0.0.1:" + server.getPort()).collect(Collectors.joining(","));
+  }
+
+  @After
+  public void stopServers() throws Exception {
+    for (Server server : servers) {
+      server.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void hedgingCutsTheTailFromSlowCalls() throws Exception {
+    // One call in twenty takes 300ms on whichever backend it lands
+    services.forEach(service -> service.setFaults(
+        GrpcClientTestServer.Faults.builder().latencyMs(1).jitterMs(2).slowFraction(0.05).slowLatencyMs(300).build()));
+
+    GrpcServiceConfig plain = GrpcServiceConfig.builder()
+        .methodConfig(GrpcServiceConfig.MethodConfig.builder().build())
+        .build();
+    GrpcServiceConfig hedged = GrpcServiceConfig.builder()
+        .methodConfig(GrpcServiceConfig.MethodConfig.builder()
+            .service("GrpcClientTest")
+            .method("SayHello")
+            .hedgingPolicy(GrpcServiceConfig.HedgingPolicy.builder()
+                .maxAttempts(3)
+                .hedgingDelay(Duration.ofMillis(20))
+                .nonFatalStatusCode(Status.Code.UNAVAILABLE)
+                .build())
+            .build())
+        .build();
+
+    double plainP99 = p99Ms(plain);
+    double hedgedP99 = p99Ms(hedged);
+    System.out.printf("p99 without hedging %.1fms, with hedging %.1fms%n", plainP99, hedgedP99);
+    assertTrue(plainP99 > 250);
+    assertTrue(hedgedP99 < plainP99 / 3);
+  }
+
+  @Test
+  public void throttlingCapsRetryAmplificationWhenEveryBackendFails() throws Exception {
+    services.forEach(service -> service.setFaults(GrpcClientTestServer.Faults.builder().errorRate(1).build()));
+    GrpcServiceConfig.RetryPolicy retries = GrpcServiceConfig.RetryPolicy.builder()
+        .maxAttempts(5)
+        .initialBackoff(Duration.ofMillis(1))
+        .maxBackoff(Duration.ofMillis(5))
+        .retryableStatusCode(Status.Code.UNAVAILABLE)
+        .build();
+    GrpcServiceConfig unthrottled = GrpcServiceConfig.builder()
+        .methodConfig(GrpcServiceConfig.MethodConfig.builder().retryPolicy(retries).build())
+        .build();
+    GrpcServiceConfig throttled = GrpcServiceConfig.builder()
+        .methodConfig(GrpcServiceConfig.MethodConfig.builder().retryPolicy(retries).build())
+        .retryThrottling(GrpcServiceConfig.RetryThrottling.builder().maxTokens(10).tokenRatio(0.1).build())
+        .build();
+
+    double unthrottledAmplification = amplification(unthrottled);
+    double throttledAmplification = amplification(throttled);
+    System.out.printf("Server requests per call without throttling %.2f, with throttling %.2f%n",
+        unthrottledAmplification, throttledAmplification);
+    assertTrue(unthrottledAmplification > 4.5);
+    // Only the first few failures are retried before the bucket drops below half
+    assertTrue(throttledAmplification < 1.2);
+  }
+
+  private double p99Ms(GrpcServiceConfig serviceConfig) throws Exception {
+    ManagedChannel channel = channel(serviceConfig);
+    try {
+      GrpcClientTestGrpc.GrpcClientTestBlockingStub stub = GrpcClientTestGrpc.newBlockingStub(channel);
+      stub.sayHello(request);
+      GrpcLoadBalancingBenchmark.LatencyRecorder latency = new GrpcLoadBalancingBenchmark.LatencyRecorder(CALLS);
+      for (int i = 0; i < CALLS; i++) {
+        long start = System.nanoTime();
+        stub.sayHello(request);
+        latency.record(System.nanoTime() - start);
+      }
+      return latency.percentileMs(99);
+    } finally {
+      channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private double amplification(GrpcServiceConfig serviceConfig) throws Exception {
+    ManagedChannel channel = channel(serviceConfig);
+    services.forEach(GrpcClientTestServer::resetRequestCount);
+    try {
+      GrpcClientTestGrpc.GrpcClientTestBlockingStub stub = GrpcClientTestGrpc.newBlockingStub(channel);
+      for (int i = 0; i < CALLS; i++) {
+        try {
+          stub.sayHello(request);
+          fail("every backend is failing");
+        } catch (StatusRuntimeException expected) {
+          assertEquals(Status.Code.UNAVAILABLE, expected.getStatus().getCode());
+        }
+      }
+      return (double) services.stream().mapToLong(GrpcClientTestServer::requestCount).sum() / CALLS;
+    } finally {
+      channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private ManagedChannel channel(GrpcServiceConfig serviceConfig) {
+    return new GrpcClientConfig(target, GrpcClientConfig.DEFAULT_AUTHORITY, serviceConfig.toMap())
+        .getChannelBuilder()
+        .build();
+  }
+}
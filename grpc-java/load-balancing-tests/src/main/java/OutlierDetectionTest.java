@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import static org.junit.Assert.*;
+
+import io.grpc.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Like {@code whenServerIsFailingWeShouldStillWork}, but checks how quickly the channel stops sending to the failing
+ * backend: round_robin alone keeps sending it a third of the attempts and leaves retries to cover for it, while outlier
+ * detection ejects it after an interval and health checking drops it as soon as it reports NOT_SERVING.
+ */
+public class OutlierDetectionTest {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new StaticResolverProvider());
+  }
+
+  private static final long RUN_MS = 3000;
+  private static final GrpcServiceConfig.MethodConfig RETRIES = GrpcServiceConfig.MethodConfig.builder()
+      .retryPolicy(GrpcServiceConfig.RetryPolicy.builder()
+          .initialBackoff(Duration.ofMillis(1))
+          .maxBackoff(Duration.ofMillis(5))
+          .retryableStatusCode(Status.Code.UNAVAILABLE)
+          .build())
+      .build();
+
+  private final List<GrpcClientTestServer> services = new ArrayList<>();
+  private final List<Server> servers = new ArrayList<>();
+  private GrpcClientTestServer failing;
+  private String target;
+  private GrpcClientRequest request = GrpcClientRequest.newBuilder().setName("I am a teapot!").build();
+
+  @Before
+  public void setup() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      GrpcClientTestServer service = new GrpcClientTestServer(i);
+      services.add(service);
+      servers.add(service.start(0));
+    }
+    failing = services.get(2);
+    target = "static:///"
+        + servers.stream().map(server -> "127.0.0.1:" + server.getPort()).collect(Collectors.joining(","));
+  }
+
+  @After
+  public void stopServers() throws Exception {
+    for (Server server : servers) {
+      server.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void failurePercentageEjectionStopsTrafficToAFailingBackend() throws Exception {
+    failing.setFaults(GrpcClientTestServer.Faults.builder().errorRate(1).build());
+    Run plain = run(GrpcServiceConfig.builder().methodConfig(RETRIES).build());
+    Run ejecting = run(GrpcServiceConfig.builder()
+        .methodConfig(RETRIES)
+        .outlierDetection(GrpcServiceConfig.OutlierDetection.builder()
+            .interval(Duration.ofMillis(500))
+            .failurePercentageEjection(GrpcServiceConfig.FailurePercentageEjection.builder()
+                .threshold(50)
+                .minimumHosts(3)
+                .requestVolume(10)
+                .build())
+            .build())
+        .build());
+    System.out.println("round_robin: " + plain);
+    System.out.println("outlier detection: " + ejecting);
+
+    assertEquals(0, plain.errors);
+    assertEquals(0, ejecting.errors);
+    assertTrue(plain.lastHitOnFailingMs > RUN_MS - 500);
+    assertTrue(ejecting.lastHitOnFailingMs < 1500);
+    assertTrue(ejecting.attemptsPerCall() < plain.attemptsPerCall());
+  }
+
+  @Test
+  public void successRateEjectionStopsTrafficToAMostlyFailingBackend() throws Exception {
+    failing.setFaults(GrpcClientTestServer.Faults.builder().errorRate(0.6).build());
+    Run ejecting = run(GrpcServiceConfig.builder()
+        .methodConfig(RETRIES)
+        .outlierDetection(GrpcServiceConfig.OutlierDetection.builder()
+            .interval(Duration.ofMillis(500))
+            .successRateEjection(GrpcServiceConfig.SuccessRateEjection.builder()
+                // With three hosts one outlier can sit at most ~1.4 standard deviations from the mean
+                .stdevFactor(1000)
+                .minimumHosts(3)
+                .requestVolume(10)
+                .build())
+            .build())
+        .build());
+    System.out.println("success rate ejection: " + ejecting);
+    assertTrue(ejecting.lastHitOnFailingMs < 1500);
+  }
+
+  @Test
+  public void healthCheckingDropsABackendReportingNotServing() throws Exception {
+    ManagedChannel channel = channel(GrpcServiceConfig.builder()
+        .methodConfig(RETRIES)
+        .healthCheckServiceName(GrpcClientTestGrpc.SERVICE_NAME)
+        .build());
+    try {
+      GrpcClientTestGrpc.GrpcClientTestBlockingStub stub = GrpcClientTestGrpc.newBlockingStub(channel);
+      for (int i = 0; i < 30; i++) {
+        stub.sayHello(request);
+      }
+      assertTrue(failing.requestCount() > 0);
+
+      failing.setServing(false);
+      long notServingAt = System.nanoTime();
+      long lastHit = notServingAt;
+      long seen = failing.requestCount();
+      while (System.nanoTime() - notServingAt < TimeUnit.MILLISECONDS.toNanos(1000)) {
+        stub.sayHello(request);
+        if (failing.requestCount() != seen) {
+          seen = failing.requestCount();
+          lastHit = System.nanoTime();
+        }
+      }
+      long drainedMs = TimeUnit.NANOSECONDS.toMillis(lastHit - notServingAt);
+      System.out.println("NOT_SERVING backend kept receiving requests for " + drainedMs + "ms");
+      assertTrue(drainedMs < 200);
+    } finally {
+      channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  // Sends calls back to back for RUN_MS and tracks the last time the failing backend saw one of the attempts
+  private Run run(GrpcServiceConfig serviceConfig) throws Exception {
+    services.forEach(GrpcClientTestServer::resetRequestCount);
+    ManagedChannel channel = channel(serviceConfig);
+    try {
+      GrpcClientTestGrpc.GrpcClientTestBlockingStub stub = GrpcClientTestGrpc.newBlockingStub(channel);
+      Run run = new Run();
+      long start = System.nanoTime();
+      long seen = 0;
+      while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(RUN_MS)) {
+        try {
+          stub.sayHello(request);
+        } catch (StatusRuntimeException e) {
+          run.errors++;
+        }
+        run.calls++;
+        if (failing.requestCount() != seen) {
+          seen = failing.requestCount();
+          run.lastHitOnFailingMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+      }
+      run.attempts = services.stream().mapToLong(GrpcClientTestServer::requestCount).sum();
+      return run;
+    } finally {
+      channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private ManagedChannel channel(GrpcServiceConfig serviceConfig) {
+    return new GrpcClientConfig(target, GrpcClientConfig.DEFAULT_AUTHORITY, serviceConfig.toMap())
+        .getChannelBuilder()
+        .build();
+  }
+
+  private static class Run {
+    long calls;
+    long attempts;
+    long errors;
+    long lastHitOnFailingMs;
+
+    double attemptsPerCall() {
+      return calls == 0 ? 0 : (double) attempts / calls;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d calls, %.3f server attempts per call, %d errors, failing backend last hit at %dms",
+          calls, attemptsPerCall(), errors, lastHitOnFailingMs);
+    }
+  }
+}
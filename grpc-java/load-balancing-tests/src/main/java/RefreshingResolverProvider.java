@@ -0,0 +1,257 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Preconditions;
+import io.grpc.Attributes;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Like {@link StaticResolverProvider}, but the backends are re-read on a schedule and on {@link NameResolver#refresh()}
+ * (which the channel calls when a subchannel drops), so pods leaving a headless service stop being dialed.
+ *
+ * Two sources are supported:
+ * <ul>
+ *   <li>{@code watched:///path/to/backends.txt} - one {@code host:port} per line, optionally followed by
+ *   {@code weight=N}.  Blank lines and lines starting with {@code #} are ignored.</li>
+ *   <li>{@code watched://dns/host:port} - every A/AAAA record of the host, like a headless service lookup.</li>
+ * </ul>
+ * The refresh interval defaults to 5 seconds and can be set with {@code ?refreshMs=N}.  Only address lists that differ
+ * from the last one pushed reach the listener.  Each address carries its weight as {@link #WEIGHT}.
+ *
+ * DNS answers are sorted, so a server rotating its records is not taken for a change.  Lookups go through the JVM's
+ * address cache, which keeps answers for {@code networkaddress.cache.ttl} seconds (30 by default), so set that security
+ * property to no more than the refresh interval for pod churn to show up within one refresh.
+ */
+@Slf4j
+public class RefreshingResolverProvider extends NameResolverProvider {
+  public static final String SCHEME = "watched";
+  public static final Attributes.Key<Integer> WEIGHT = Attributes.Key.create("watched.weight");
+  private static final String DNS_AUTHORITY = "dns";
+  private static final long DEFAULT_REFRESH_MS = 5000;
+  private static final long DEFAULT_DNS_CACHE_SECONDS = 30;
+
+  @Override
+  protected boolean isAvailable() {
+    return true;
+  }
+
+  @Override
+  protected int priority() {
+    return 0;
+  }
+
+  @Override
+  public NameResolver newNameResolver(URI uri, NameResolver.Args args) {
+    if (!SCHEME.equals(uri.getScheme())) {
+      return null;
+    }
+    long refreshMs = DEFAULT_REFRESH_MS;
+    if (uri.getQuery() != null && uri.getQuery().startsWith("refreshMs=")) {
+      refreshMs = Long.parseLong(StringUtils.substringAfter(uri.getQuery(), "refreshMs="));
+    }
+    AddressSource source;
+    if (DNS_AUTHORITY.equals(uri.getAuthority())) {
+      long cacheSeconds = dnsCacheSeconds();
+      if (cacheSeconds < 0 || TimeUnit.SECONDS.toMillis(cacheSeconds) > refreshMs) {
+        log.warn("The JVM caches DNS answers {}, so {} sees backend changes no sooner than that; set "
+            + "networkaddress.cache.ttl to at most the refresh interval",
+            cacheSeconds < 0 ? "forever" : "for " + cacheSeconds + "s", uri);
+      }
+      source = new DnsSource(StringUtils.substringAfter(uri.getPath(), "/"));
+    } else {
+      source = new FileSource(Path.of(uri.getPath()));
+    }
+    return new RefreshingResolver(source, refreshMs, args);
+  }
+
+  @Override
+  public String getDefaultScheme() {
+    return SCHEME;
+  }
+
+  // Negative means answers are cached forever
+  private static long dnsCacheSeconds() {
+    String ttl = Security.getProperty("networkaddress.cache.ttl");
+    if (ttl == null) {
+      ttl = System.getProperty("sun.net.inetaddr.ttl");
+    }
+    try {
+      return ttl == null ? DEFAULT_DNS_CACHE_SECONDS : Long.parseLong(ttl.trim());
+    } catch (NumberFormatException e) {
+      return DEFAULT_DNS_CACHE_SECONDS;
+    }
+  }
+
+  interface AddressSource {
+    List<EquivalentAddressGroup> resolve() throws IOException;
+  }
+
+  static class FileSource implements AddressSource {
+    private final Path file;
+
+    FileSource(Path file) {
+      this.file = file;
+    }
+
+    @Override
+    public List<EquivalentAddressGroup> resolve() throws IOException {
+      List<EquivalentAddressGroup> servers = new ArrayList<>();
+      for (String line : Files.readAllLines(file)) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] fields = line.split("\\s+");
+        String[] hostAndPort = fields[0].split(":");
+        int weight = 1;
+        for (int i = 1; i < fields.length; i++) {
+          if (fields[i].startsWith("weight=")) {
+            weight = Integer.parseInt(StringUtils.substringAfter(fields[i], "weight="));
+          }
+        }
+        servers.add(new EquivalentAddressGroup(
+            new InetSocketAddress(hostAndPort[0], Integer.parseInt(hostAndPort[1])),
+            Attributes.newBuilder().set(WEIGHT, weight).build()));
+      }
+      return servers;
+    }
+  }
+
+  static class DnsSource implements AddressSource {
+    private final String host;
+    private final int port;
+
+    DnsSource(String hostAndPort) {
+      this.host = StringUtils.substringBeforeLast(hostAndPort, ":");
+      this.port = Integer.parseInt(StringUtils.substringAfterLast(hostAndPort, ":"));
+    }
+
+    @Override
+    public List<EquivalentAddressGroup> resolve() throws UnknownHostException {
+      List<EquivalentAddressGroup> servers = new ArrayList<>();
+      InetAddress[] addresses = InetAddress.getAllByName(host);
+      // Record order is up to the DNS server and may rotate between answers
+      Arrays.sort(addresses, Comparator.comparing(InetAddress::getHostAddress));
+      for (InetAddress address : addresses) {
+        servers.add(new EquivalentAddressGroup(
+            new InetSocketAddress(address, port), Attributes.newBuilder().set(WEIGHT, 1).build()));
+      }
+      return servers;
+    }
+  }
+
+  private static class RefreshingResolver extends NameResolver {
+    private final AddressSource source;
+    private final long refreshMs;
+    private final SynchronizationContext syncContext;
+    private final ScheduledExecutorService scheduler;
+    private final Executor resolveExecutor;
+    private Listener2 listener;
+    private ScheduledFuture<?> scheduled;
+    private boolean resolving;
+    private boolean shutdown;
+    // Only touched in the synchronization context
+    private List<EquivalentAddressGroup> lastPushed;
+
+    RefreshingResolver(AddressSource source, long refreshMs, NameResolver.Args args) {
+      this.source = source;
+      this.refreshMs = refreshMs;
+      this.syncContext = args.getSynchronizationContext();
+      this.scheduler = args.getScheduledExecutorService();
+      // File reads and DNS lookups block, so keep them off the synchronization context
+      this.resolveExecutor = args.getOffloadExecutor() != null ? args.getOffloadExecutor() : scheduler;
+    }
+
+    @Override
+    public String getServiceAuthority() {
+      return "";
+    }
+
+    @Override
+    public void start(Listener2 listener) {
+      Preconditions.checkState(this.listener == null, "already started");
+      this.listener = checkNotNull(listener, "listener");
+      scheduled = scheduler.scheduleWithFixedDelay(
+          () -> syncContext.execute(this::resolve), 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void refresh() {
+      syncContext.execute(this::resolve);
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+      if (scheduled != null) {
+        scheduled.cancel(false);
+      }
+    }
+
+    private void resolve() {
+      if (resolving || shutdown) {
+        return;
+      }
+      resolving = true;
+      resolveExecutor.execute(() -> {
+        try {
+          List<EquivalentAddressGroup> servers = source.resolve();
+          if (servers.isEmpty()) {
+            // Usually a file caught mid-write; dropping every backend is never what the channel should do
+            throw new IOException("No backends listed");
+          }
+          syncContext.execute(() -> push(servers, null));
+        } catch (Exception e) {
+          syncContext.execute(() -> push(null, e));
+        }
+      });
+    }
+
+    private void push(List<EquivalentAddressGroup> servers, Exception error) {
+      resolving = false;
+      if (shutdown) {
+        return;
+      }
+      if (error != null) {
+        // Keep using the last good list; the channel only sees the error if there never was one
+        log.warn("Could not refresh backends, keeping {}", lastPushed, error);
+        if (lastPushed == null) {
+          listener.onError(Status.UNAVAILABLE.withDescription("Could not resolve backends").withCause(error));
+        }
+        return;
+      }
+      if (servers.equals(lastPushed)) {
+        return;
+      }
+      log.info("Backends changed from {} to {}", lastPushed, servers);
+      lastPushed = servers;
+      listener.onResult(ResolutionResult.newBuilder().setAddresses(Collections.unmodifiableList(servers)).build());
+    }
+  }
+}
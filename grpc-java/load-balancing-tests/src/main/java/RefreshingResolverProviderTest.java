@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import static org.junit.Assert.*;
+
+import io.grpc.*;
+import io.grpc.internal.GrpcUtil;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the "watched" resolver follows backend changes: the channel should stop sending to a removed backend
+ * within about one refresh interval, and the listener should only hear about lists that actually changed.
+ */
+public class RefreshingResolverProviderTest {
+  static {
+    NameResolverRegistry.getDefaultRegistry().register(new RefreshingResolverProvider());
+  }
+
+  private static final long REFRESH_MS = 200;
+
+  private Server server1;
+  private Server server2;
+  private Path backends;
+
+  @Before
+  public void setup() throws Exception {
+    server1 = new GrpcClientTestServer(1).start(9812);
+    server2 = new GrpcClientTestServer(2).start(9813);
+    backends = Files.createTempFile("backends", ".txt");
+  }
+
+  @After
+  public void stopServers() throws Exception {
+    server1.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+    server2.shutdown().awaitTermination(30, TimeUnit.SECONDS);
+    Files.deleteIfExists(backends);
+  }
+
+  @Test
+  public void removedBackendStopsGettingRequestsAfterARefresh() throws Exception {
+    write("127.0.0.1:9812\n127.0.0.1:9813\n");
+    GrpcClientConfig config = new GrpcClientConfig("watched://" + backends.toUri().getPath() + "?refreshMs=" + REFRESH_MS);
+    ManagedChannel channel = config.getChannelBuilder().build();
+    try {
+      GrpcClientTestGrpc.GrpcClientTestBlockingStub stub = GrpcClientTestGrpc.newBlockingStub(channel);
+      GrpcClientRequest request = GrpcClientRequest.newBuilder().setName("watcher").build();
+      assertTrue(callUntil(stub, request, "server 2", 5000));
+
+      // Server 2 stays up, so only the resolver can take it out of rotation
+      write("127.0.0.1:9812\n");
+      long removedAt = System.nanoTime();
+      long lastHitOnRemoved = removedAt;
+      int consecutiveMisses = 0;
+      while (consecutiveMisses < 50) {
+        assertTrue("still hitting the removed backend", System.nanoTime() - removedAt < TimeUnit.SECONDS.toNanos(10));
+        if (stub.sayHello(request).getMessage().contains("server 2")) {
+          lastHitOnRemoved = System.nanoTime();
+          consecutiveMisses = 0;
+        } else {
+          consecutiveMisses++;
+        }
+      }
+      long stillHitMs = TimeUnit.NANOSECONDS.toMillis(lastHitOnRemoved - removedAt);
+      System.out.println("Removed backend kept receiving requests for " + stillHitMs + "ms");
+      assertTrue(stillHitMs < REFRESH_MS * 5);
+    } finally {
+      channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void onlyChangedAddressListsArePushed() throws Exception {
+    write("127.0.0.1:9812 weight=3\n");
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    List<NameResolver.ResolutionResult> results = new CopyOnWriteArrayList<>();
+    NameResolver resolver = new RefreshingResolverProvider().newNameResolver(
+        URI.create("watched://" + backends.toUri().getPath() + "?refreshMs=" + REFRESH_MS), args(scheduler));
+    try {
+      resolver.start(new NameResolver.Listener2() {
+        @Override
+        public void onResult(NameResolver.ResolutionResult resolutionResult) {
+          results.add(resolutionResult);
+        }
+
+        @Override
+        public void onError(Status error) {
+          fail("unexpected resolution error " + error);
+        }
+      });
+      Thread.sleep(REFRESH_MS * 3);
+      resolver.refresh();
+      Thread.sleep(REFRESH_MS);
+      assertEquals(1, results.size());
+      assertEquals(Integer.valueOf(3), results.get(0).getAddresses().get(0).getAttributes().get(RefreshingResolverProvider.WEIGHT));
+
+      write("127.0.0.1:9812 weight=3\n127.0.0.1:9813\n");
+      resolver.refresh();
+      Thread.sleep(REFRESH_MS);
+      assertEquals(2, results.size());
+      assertEquals(2, results.get(1).getAddresses().size());
+    } finally {
+      resolver.shutdown();
+      scheduler.shutdownNow();
+    }
+  }
+
+  // Replaces the file atomically so the resolver never reads it half written
+  private void write(String content) throws Exception {
+    Path next = Files.createTempFile(backends.getParent(), "backends", ".tmp");
+    Files.writeString(next, content);
+    Files.move(next, backends, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static NameResolver.Args args(ScheduledExecutorService scheduler) {
+    return NameResolver.Args.newBuilder()
+        .setDefaultPort(443)
+        .setProxyDetector(GrpcUtil.NOOP_PROXY_DETECTOR)
+        .setSynchronizationContext(new SynchronizationContext((thread, e) -> e.printStackTrace(System.err)))
+        .setServiceConfigParser(new NameResolver.ServiceConfigParser() {
+          @Override
+          public NameResolver.ConfigOrError parseServiceConfig(java.util.Map<String, ?> rawServiceConfig) {
+            return null;
+          }
+        })
+        .setScheduledExecutorService(scheduler)
+        .build();
+  }
+
+  private static boolean callUntil(GrpcClientTestGrpc.GrpcClientTestBlockingStub stub, GrpcClientRequest request,
+      String expected, long timeoutMs) {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    while (System.currentTimeMillis() < deadline) {
+      if (stub.sayHello(request).getMessage().contains(expected)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
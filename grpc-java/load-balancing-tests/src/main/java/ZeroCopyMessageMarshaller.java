@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 Harness Inc. All rights reserved.
+ */
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.Detachable;
+import io.grpc.HasByteBuffer;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses messages straight out of the transport's buffers instead of copying them onto the heap first.  When the
+ * stream gRPC hands over exposes its buffers ({@link HasByteBuffer}) and can be detached from the call
+ * ({@link Detachable}), it is detached and the message is parsed with aliasing on, so {@code bytes} fields point
+ * into those buffers.  Anything else falls back to the normal copying parse.
+ *
+ * A message parsed this way keeps its transport buffers until {@link #release} is called for it; skipping that
+ * leaks pooled memory.  Other fields, such as strings, are still decoded into new objects.
+ */
+public class ZeroCopyMessageMarshaller<T extends MessageLite> implements MethodDescriptor.PrototypeMarshaller<T> {
+  private final T defaultInstance;
+  private final Parser<T> parser;
+  private final MethodDescriptor.Marshaller<T> copying;
+  private final Map<T, InputStream> detached = Collections.synchronizedMap(new IdentityHashMap<>());
+
+  @SuppressWarnings("unchecked")
+  public ZeroCopyMessageMarshaller(T defaultInstance) {
+    this.defaultInstance = defaultInstance;
+    this.parser = (Parser<T>) defaultInstance.getParserForType();
+    this.copying = ProtoUtils.marshaller(defaultInstance);
+  }
+
+  /**
+   * Copies {@code method} with responses parsed by {@code responses}.
+   */
+  public static <ReqT, RespT extends MessageLite> MethodDescriptor<ReqT, RespT> forResponses(
+      MethodDescriptor<ReqT, RespT> method, ZeroCopyMessageMarshaller<RespT> responses) {
+    return method.toBuilder(method.getRequestMarshaller(), responses).build();
+  }
+
+  @Override
+  public T getMessagePrototype() {
+    return defaultInstance;
+  }
+
+  @Override
+  public Class<T> getMessageClass() {
+    @SuppressWarnings("unchecked")
+    Class<T> messageClass = (Class<T>) defaultInstance.getClass();
+    return messageClass;
+  }
+
+  @Override
+  public InputStream stream(T value) {
+    return copying.stream(value);
+  }
+
+  @Override
+  public T parse(InputStream stream) {
+    if (!(stream instanceof KnownLength && stream instanceof Detachable && stream instanceof HasByteBuffer
+        && ((HasByteBuffer) stream).byteBufferSupported())) {
+      return copying.parse(stream);
+    }
+    InputStream buffers = ((Detachable) stream).detach();
+    try {
+      int size = buffers.available();
+      List<ByteBuffer> chunks = new ArrayList<>();
+      while (buffers.available() > 0) {
+        ByteBuffer chunk = ((HasByteBuffer) buffers).getByteBuffer();
+        if (chunk == null) {
+          break;
+        }
+        chunks.add(chunk.duplicate());
+        buffers.skip(chunk.remaining());
+      }
+      if (chunks.isEmpty() && size > 0) {
+        // Buffers were not exposed after all; the detached stream still holds every byte
+        T message = copying.parse(buffers);
+        buffers.close();
+        return message;
+      }
+      ByteString bytes = ByteString.empty();
+      for (ByteBuffer chunk : chunks) {
+        bytes = bytes.concat(UnsafeByteOperations.unsafeWrap(chunk));
+      }
+      CodedInputStream input = bytes.newCodedInput();
+      input.enableAliasing(true);
+      input.setSizeLimit(Integer.MAX_VALUE);
+      T message = parser.parseFrom(input);
+      detached.put(message, buffers);
+      return message;
+    } catch (InvalidProtocolBufferException e) {
+      closeQuietly(buffers);
+      throw Status.INTERNAL.withDescription("Invalid protobuf byte sequence").withCause(e).asRuntimeException();
+    } catch (IOException e) {
+      closeQuietly(buffers);
+      throw Status.INTERNAL.withDescription("Could not read message").withCause(e).asRuntimeException();
+    }
+  }
+
+  /**
+   * Returns the transport buffers behind {@code message} to their pool.  The message must not be used afterwards.
+   */
+  public void release(T message) {
+    InputStream buffers = detached.remove(message);
+    if (buffers != null) {
+      closeQuietly(buffers);
+    }
+  }
+
+  private static void closeQuietly(InputStream stream) {
+    try {
+      stream.close();
+    } catch (IOException ignored) {
+      // Closing only releases buffers
+    }
+  }
+}
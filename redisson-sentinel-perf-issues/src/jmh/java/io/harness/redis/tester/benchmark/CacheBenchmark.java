@@ -0,0 +1,86 @@
+package io.harness.redis.tester.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.jcache.configuration.RedissonConfiguration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code putIfAbsent} through the two cache stacks the checkers use: Redisson JCache built with
+ * {@link RedissonConfiguration#fromInstance} and Spring's {@link RedisCacheManager} on Lettuce.  Entries get a one
+ * minute TTL so long runs do not grow the keyspace without bound.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    @Param({"16", "1024", "16384"})
+    public int payloadBytes;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private String prefix;
+    private byte[] payload;
+    private Cache<String, byte[]> jcache;
+    private org.springframework.cache.Cache springCache;
+
+    @Setup(Level.Trial)
+    public void setUp(RedisBenchmarkState state) {
+        prefix = "benchmark-" + UUID.randomUUID() + "-";
+        payload = new byte[payloadBytes];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) ('a' + i % 26);
+        }
+
+        MutableConfiguration<String, byte[]> jcacheConfig = new MutableConfiguration<>();
+        jcacheConfig.setTypes(String.class, byte[].class);
+        jcacheConfig.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(Duration.ONE_MINUTE));
+        CacheManager jcacheManager = Caching.getCachingProvider().getCacheManager();
+        jcache = jcacheManager.createCache("hCache/benchmark-" + UUID.randomUUID(), RedissonConfiguration.fromInstance(state.redisson, jcacheConfig));
+
+        RedisCacheManager springCacheManager = RedisCacheManager.builder(state.lettuce)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(java.time.Duration.ofMinutes(1)))
+                .build();
+        springCache = springCacheManager.getCache("hCache/benchmarkSpring");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jcache.close();
+    }
+
+    @Benchmark
+    public boolean jcachePutIfAbsent() {
+        return jcache.putIfAbsent(prefix + sequence.incrementAndGet(), payload);
+    }
+
+    @Benchmark
+    public Object springCachePutIfAbsent() {
+        return springCache.putIfAbsent(prefix + sequence.incrementAndGet(), payload);
+    }
+}
@@ -0,0 +1,92 @@
+package io.harness.redis.tester.benchmark;
+
+import io.harness.redis.tester.CacheCodecs;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.client.codec.Codec;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the JCache entry shapes the checker writes (a {@code pmsEventsCacheDeleteAfterTest...}
+ * String key and an Integer value) through each codec, using the map key/value coders JCache uses.  No Redis needed.
+ * Wire sizes are printed at setup; allocated bytes/op come from the gc profiler:
+ * {@code ./gradlew jmh -PjmhIncludes=CodecBenchmark -PjmhProfilers=gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    @Param({"kryo5", "json", "marshalling", "compact"})
+    public String codecName;
+
+    private Codec codec;
+    private String key;
+    private Integer value;
+    private ByteBuf encodedKey;
+    private ByteBuf encodedValue;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = CacheCodecs.forName(codecName);
+        key = "pmsEventsCacheDeleteAfterTest" + UUID.randomUUID();
+        value = 1;
+        encodedKey = codec.getMapKeyEncoder().encode(key);
+        encodedValue = codec.getMapValueEncoder().encode(value);
+        System.out.printf("%n  %s wire size: key=%d bytes value=%d bytes%n", codecName, encodedKey.readableBytes(), encodedValue.readableBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encodedKey.release();
+        encodedValue.release();
+    }
+
+    @Benchmark
+    public int encodeKey() throws IOException {
+        ByteBuf buf = codec.getMapKeyEncoder().encode(key);
+        try {
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public int encodeValue() throws IOException {
+        ByteBuf buf = codec.getMapValueEncoder().encode(value);
+        try {
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Benchmark
+    public Object decodeKey() throws IOException {
+        return codec.getMapKeyDecoder().decode(encodedKey.duplicate(), new org.redisson.client.handler.State());
+    }
+
+    @Benchmark
+    public Object decodeValue() throws IOException {
+        return codec.getMapValueDecoder().decode(encodedValue.duplicate(), new org.redisson.client.handler.State());
+    }
+}
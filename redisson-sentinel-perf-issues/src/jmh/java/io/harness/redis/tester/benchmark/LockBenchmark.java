@@ -0,0 +1,78 @@
+package io.harness.redis.tester.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.api.RLock;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static io.harness.redis.tester.RedisTestServceApplication.LEASE_DURATION;
+
+/**
+ * Uncontended lock round trips: each benchmark thread works on its own lock key, matching the health checker where
+ * every probe uses a fresh lock id.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class LockBenchmark {
+
+    @State(Scope.Thread)
+    public static class ThreadLocks {
+        RLock redissonLock;
+        RedisLockRegistry lockRegistry;
+        Lock registryLock;
+
+        @Setup(Level.Trial)
+        public void setUp(RedisBenchmarkState state) {
+            String lockId = "lock:BENCHMARK - " + UUID.randomUUID();
+            redissonLock = state.redisson.getLock(lockId);
+            lockRegistry = new RedisLockRegistry(state.lettuce, "benchmark/locks", LEASE_DURATION * 1000L);
+            registryLock = lockRegistry.obtain(lockId);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            lockRegistry.destroy();
+        }
+    }
+
+    @Benchmark
+    public void redissonLockUnlock(ThreadLocks locks) {
+        locks.redissonLock.lock(LEASE_DURATION, TimeUnit.SECONDS);
+        locks.redissonLock.unlock();
+    }
+
+    @Benchmark
+    public boolean redissonTryLockAsync(ThreadLocks locks) throws Exception {
+        boolean locked = locks.redissonLock.tryLockAsync(0, LEASE_DURATION, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+        if (locked) {
+            locks.redissonLock.unlock();
+        }
+        return locked;
+    }
+
+    @Benchmark
+    public boolean lockRegistryTryLock(ThreadLocks locks) throws Exception {
+        boolean locked = locks.registryLock.tryLock(1, TimeUnit.SECONDS);
+        if (locked) {
+            locks.registryLock.unlock();
+        }
+        return locked;
+    }
+}
@@ -0,0 +1,103 @@
+package io.harness.redis.tester.benchmark;
+
+import io.harness.redis.tester.NearCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.jcache.configuration.RedissonConfiguration;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads through {@link NearCache} against plain JCache reads at a given local hit ratio.  Hot keys are preloaded
+ * into the local tier; the rest of the reads go to keys that do not exist, so each one is a Redis round trip.  The
+ * Redis reads avoided per second are printed after every iteration.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NearCacheBenchmark {
+
+    @Param({"0.0", "0.5", "0.9", "0.99"})
+    public double hitRatio;
+
+    @Param({"1000"})
+    public int hotKeys;
+
+    private Cache<String, Integer> jcache;
+    private NearCache<Integer> nearCache;
+    private SimpleMeterRegistry meterRegistry;
+    private long iterationStartNanos;
+    private double hitsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp(RedisBenchmarkState state) {
+        MutableConfiguration<String, Integer> jcacheConfig = new MutableConfiguration<>();
+        jcacheConfig.setTypes(String.class, Integer.class);
+        jcache = Caching.getCachingProvider().getCacheManager()
+                .createCache("hCache/nearBenchmark-" + UUID.randomUUID(), RedissonConfiguration.fromInstance(state.redisson, jcacheConfig));
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache = new NearCache<>(jcache, state.redisson, hotKeys, TimeUnit.HOURS.toMillis(1), meterRegistry);
+        for (int i = 0; i < hotKeys; i++) {
+            jcache.put("hot-" + i, i);
+            nearCache.get("hot-" + i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        hitsAtStart = localHits();
+        iterationStartNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportSaved() {
+        double seconds = (System.nanoTime() - iterationStartNanos) / 1e9;
+        System.out.printf("%n  redis reads avoided/sec=%.0f%n", (localHits() - hitsAtStart) / seconds);
+    }
+
+    private double localHits() {
+        return meterRegistry.get("redis.checker.nearcache.requests").tag("result", "hit").counter().count();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        nearCache.close();
+        jcache.clear();
+        jcache.close();
+    }
+
+    @Benchmark
+    public Integer nearCacheGet() {
+        return nearCache.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer jcacheGet() {
+        return jcache.get(nextKey());
+    }
+
+    private String nextKey() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextDouble() < hitRatio ? "hot-" + random.nextInt(hotKeys) : "cold-" + random.nextLong();
+    }
+}
@@ -0,0 +1,162 @@
+package io.harness.redis.tester.benchmark;
+
+import io.harness.redis.tester.LocalRedisTopology;
+import io.harness.redis.tester.RedisCheckerProperties;
+import io.harness.redis.tester.RedisHealthChecker;
+import io.harness.redis.tester.RedisLettuceHealthChecker;
+import io.harness.redis.tester.RedisLettuceReactiveHealthChecker;
+import io.harness.redis.tester.RedisReactiveHealthChecker;
+import io.harness.redis.tester.RedisWorkload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A burst of concurrent health checks through the blocking checkers, each holding a thread from a fixed pool the
+ * way Tomcat would, against the reactive checkers, which run the whole burst from the benchmark thread.  With
+ * {@code master=paused} the master answers no writes for 800ms of every 2s ({@code CLIENT PAUSE ... WRITE}, so the
+ * sentinels do not fail over).  Live and peak JVM thread counts and failed checks are printed after every iteration.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReactiveHealthBenchmark {
+
+    @Param({"none", "paused"})
+    public String master;
+
+    @Param({"32"})
+    public int concurrentChecks;
+
+    @Param({"250"})
+    public long stepTimeoutMs;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicLong failedChecks = new AtomicLong();
+    private ScheduledExecutorService staller;
+    private ExecutorService servletPool;
+    private RedisWorkload redissonBlocking;
+    private RedisWorkload lettuceBlocking;
+    private ReactiveHealthIndicator redissonReactive;
+    private ReactiveHealthIndicator lettuceReactive;
+
+    @Setup(Level.Trial)
+    public void setUp(RedisBenchmarkState state, BenchmarkParams params) {
+        RedisCheckerProperties properties = new RedisCheckerProperties();
+        properties.getReactive().setStepTimeoutMs(stepTimeoutMs);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Only the blocking runs get the servlet-style pool, so it does not inflate the reactive thread counts
+        if (params.getBenchmark().endsWith("Blocking")) {
+            servletPool = Executors.newFixedThreadPool(concurrentChecks);
+            redissonBlocking = new RedisHealthChecker(state.redisson, meterRegistry, properties, 1);
+            lettuceBlocking = new RedisLettuceHealthChecker(state.lettuce, meterRegistry, properties, 1);
+        } else {
+            redissonReactive = new RedisReactiveHealthChecker(state.redisson, meterRegistry, properties, 1);
+            lettuceReactive = new RedisLettuceReactiveHealthChecker(state.lettuce, meterRegistry, properties);
+        }
+        if ("paused".equals(master)) {
+            staller = Executors.newSingleThreadScheduledExecutor();
+            staller.scheduleAtFixedRate(() -> {
+                try {
+                    LocalRedisTopology.command(state.masterPort, "CLIENT", "PAUSE", "800", "WRITE");
+                } catch (Exception e) {
+                    System.err.println("Unable to pause the master: " + e);
+                }
+            }, 0, 2, TimeUnit.SECONDS);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportThreads() {
+        System.out.printf("%n  live threads=%d peak threads=%d failed checks=%d%n",
+                threads.getThreadCount(), threads.getPeakThreadCount(), failedChecks.getAndSet(0));
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (staller != null) {
+            staller.shutdownNow();
+        }
+        if (servletPool != null) {
+            servletPool.shutdownNow();
+            redissonBlocking.close();
+            lettuceBlocking.close();
+        }
+    }
+
+    @Benchmark
+    public void redissonBlocking() throws Exception {
+        runBlocking(redissonBlocking);
+    }
+
+    @Benchmark
+    public void lettuceBlocking() throws Exception {
+        runBlocking(lettuceBlocking);
+    }
+
+    @Benchmark
+    public void redissonReactive() {
+        runReactive(redissonReactive);
+    }
+
+    @Benchmark
+    public void lettuceReactive() {
+        runReactive(lettuceReactive);
+    }
+
+    private void runBlocking(RedisWorkload checker) throws Exception {
+        List<Future<?>> checks = new ArrayList<>(concurrentChecks);
+        for (int i = 0; i < concurrentChecks; i++) {
+            checks.add(servletPool.submit(() -> {
+                checker.runOnce();
+                return null;
+            }));
+        }
+        for (Future<?> check : checks) {
+            try {
+                check.get();
+            } catch (Exception e) {
+                failedChecks.incrementAndGet();
+            }
+        }
+    }
+
+    private void runReactive(ReactiveHealthIndicator checker) {
+        Flux.range(0, concurrentChecks)
+                .flatMap(i -> checker.health())
+                .filter(health -> !Status.UP.equals(health.getStatus()))
+                .doOnNext(health -> failedChecks.incrementAndGet())
+                .then()
+                .block();
+    }
+}
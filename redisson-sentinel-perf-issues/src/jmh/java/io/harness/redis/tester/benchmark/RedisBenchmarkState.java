@@ -0,0 +1,50 @@
+package io.harness.redis.tester.benchmark;
+
+import io.harness.redis.tester.LocalRedisTopology;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+/**
+ * Shared Redis topology and clients for a benchmark trial.  Launches local redis-server processes unless
+ * {@code -Dredis.bench.launch=false}, in which case it connects to an already running topology on
+ * {@code redis.bench.port}.
+ */
+@State(Scope.Benchmark)
+public class RedisBenchmarkState {
+
+    @Param({"single", "sentinel"})
+    public String topology;
+
+    public LocalRedisTopology redis;
+    public RedissonClient redisson;
+    public LettuceConnectionFactory lettuce;
+    public int masterPort;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        int port = Integer.getInteger("redis.bench.port", 6390);
+        redis = Boolean.parseBoolean(System.getProperty("redis.bench.launch", "true"))
+                ? LocalRedisTopology.start(topology, port)
+                : null;
+        LocalRedisTopology connectTo = redis != null ? redis : LocalRedisTopology.describe(topology, port);
+        masterPort = connectTo.getMasterPort();
+        redisson = Redisson.create(connectTo.redissonConfig());
+        lettuce = connectTo.lettuceConnectionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lettuce.destroy();
+        redisson.shutdown();
+        if (redis != null) {
+            redis.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.harness.redis.tester;
+
+import org.springframework.boot.actuate.health.Health;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects per-command reply times for a pipelined probe.  Every command's reply is timed from the moment the batch
+ * was flushed, and a {@code TIME} call at either end of the batch gives the time Redis itself spent on it, so the
+ * rest of the round trip is network and client queueing overhead.
+ */
+public class BatchProbeTimings {
+
+    private final Map<String, Long> repliedAtNanos = new LinkedHashMap<>();
+    private long sentAtNanos;
+
+    public void markSent() {
+        sentAtNanos = System.nanoTime();
+    }
+
+    public synchronized void replied(String command) {
+        repliedAtNanos.put(command, System.nanoTime());
+    }
+
+    public void report(Health.Builder builder, RedisOperationTimer operationTimer, long roundTripNanos, List<?> serverTimeBefore, List<?> serverTimeAfter) {
+        Map<String, Double> replyMs = new LinkedHashMap<>();
+        synchronized (this) {
+            repliedAtNanos.forEach((command, repliedAt) -> {
+                long offset = repliedAt - sentAtNanos;
+                operationTimer.timer("batch." + command, "success").record(offset, TimeUnit.NANOSECONDS);
+                replyMs.put(command, RollingLatencyStats.toMillis(offset));
+            });
+        }
+        long serverNanos = TimeUnit.MICROSECONDS.toNanos(toMicros(serverTimeAfter) - toMicros(serverTimeBefore));
+        long overheadNanos = Math.max(0, roundTripNanos - serverNanos);
+        operationTimer.timer("batch.server", "success").record(serverNanos, TimeUnit.NANOSECONDS);
+        operationTimer.timer("batch.overhead", "success").record(overheadNanos, TimeUnit.NANOSECONDS);
+        builder.withDetail("batchRoundTripMs", RollingLatencyStats.toMillis(roundTripNanos))
+                .withDetail("batchServerMs", RollingLatencyStats.toMillis(serverNanos))
+                .withDetail("batchOverheadMs", RollingLatencyStats.toMillis(overheadNanos))
+                .withDetail("batchReplyMs", replyMs);
+    }
+
+    // TIME replies [seconds, microseconds]; drivers hand the elements back as strings, bytes or numbers
+    static long toMicros(List<?> timeReply) {
+        return Long.parseLong(asString(timeReply.get(0))) * 1_000_000 + Long.parseLong(asString(timeReply.get(1)));
+    }
+
+    private static String asString(Object element) {
+        return element instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(element);
+    }
+}
@@ -0,0 +1,43 @@
+package io.harness.redis.tester;
+
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.IntegerCodec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.Kryo5Codec;
+import org.redisson.codec.MarshallingCodec;
+
+/**
+ * Codecs selectable per cache with {@code redis.checker.cacheCodec}.  {@code compact} writes the
+ * {@code String -> Integer} probe entries as plain UTF-8 and a decimal integer, with no class metadata.
+ * {@code marshalling} needs jboss-marshalling-river on the classpath, which only the benchmarks carry.
+ */
+public final class CacheCodecs {
+
+    public static final String CLIENT = "client";
+
+    private CacheCodecs() {
+    }
+
+    /**
+     * Returns the codec for the given name, or {@code null} for {@link #CLIENT} meaning the client's own codec.  Any
+     * other value is loaded as a {@link Codec} class with a public no-arg constructor.
+     */
+    public static Codec forName(String name) {
+        return switch (name) {
+            case CLIENT -> null;
+            case "compact" -> new CompositeCodec(StringCodec.INSTANCE, IntegerCodec.INSTANCE);
+            case "kryo5" -> new Kryo5Codec();
+            case "json" -> new JsonJacksonCodec();
+            case "marshalling" -> new MarshallingCodec();
+            default -> {
+                try {
+                    yield (Codec) Class.forName(name).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Unknown cache codec " + name, e);
+                }
+            }
+        };
+    }
+}
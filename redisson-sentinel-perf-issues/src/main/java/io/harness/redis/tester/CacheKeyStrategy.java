@@ -0,0 +1,65 @@
+package io.harness.redis.tester;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the cache key each probe writes, keeping the checker's own footprint on Redis constant.
+ * <ul>
+ *     <li>{@link Mode#UNIQUE}: a fresh key per probe, the original behaviour; only the TTL bounds the keyspace.</li>
+ *     <li>{@link Mode#RING}: rotates through {@code ringSize} fixed keys.  After each write the next slot is
+ *     cleared, so every probe still performs a real {@code putIfAbsent} while at most {@code ringSize - 1} keys
+ *     stay live.</li>
+ *     <li>{@link Mode#DELETE}: a fresh key that is removed right after it was written.</li>
+ * </ul>
+ * Ring keys carry the pod name and a random id per strategy instance, so other replicas, a restarted JVM or another
+ * checker never write a slot this ring still has live.  Concurrent callers that wrap around the ring can still land
+ * on the same slot, so only a single threaded caller such as the probe should treat a failed write as an error.
+ */
+public class CacheKeyStrategy {
+
+    public enum Mode {
+        UNIQUE, RING, DELETE
+    }
+
+    private final Mode mode;
+    private final String prefix;
+    private final String ringPrefix;
+    private final int ringSize;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public CacheKeyStrategy(Mode mode, String prefix, int ringSize) {
+        this.mode = mode;
+        this.prefix = prefix;
+        this.ringPrefix = prefix + Optional.ofNullable(System.getenv("HOSTNAME")).orElse("local") + "-"
+                + UUID.randomUUID().toString().substring(0, 8) + "-ring-";
+        this.ringSize = Math.max(2, ringSize);
+    }
+
+    public String nextKey() {
+        if (mode == Mode.RING) {
+            return slotKey(Math.floorMod(sequence.getAndIncrement(), ringSize));
+        }
+        return prefix + UUID.randomUUID();
+    }
+
+    /**
+     * The key to remove once {@code writtenKey} has been written, or null when nothing should be removed.
+     */
+    public String keyToRemoveAfter(String writtenKey) {
+        return switch (mode) {
+            case UNIQUE -> null;
+            case DELETE -> writtenKey;
+            case RING -> slotKey((Integer.parseInt(writtenKey.substring(ringPrefix.length())) + 1) % ringSize);
+        };
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    private String slotKey(int slot) {
+        return ringPrefix + slot;
+    }
+}
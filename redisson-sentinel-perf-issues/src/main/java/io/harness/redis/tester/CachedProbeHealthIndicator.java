@@ -0,0 +1,99 @@
+package io.harness.redis.tester;
+
+import lombok.extern.java.Log;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * Runs the Redis probe on a fixed schedule and answers actuator health requests from the last result, so
+ * liveness/readiness/startup probes never do Redis I/O themselves.  A result older than the staleness threshold
+ * is reported as DOWN.
+ */
+@Log
+public abstract class CachedProbeHealthIndicator extends AbstractHealthIndicator {
+
+    private final AtomicReference<ProbeSnapshot> lastProbe = new AtomicReference<>();
+    private final RollingLatencyStats probeLatency;
+    private final long staleAfterMs;
+    private volatile boolean warm = true;
+    private volatile StartupPhaseTimer startupPhases;
+
+    protected CachedProbeHealthIndicator(long staleAfterMs, int latencyWindow) {
+        this.staleAfterMs = staleAfterMs;
+        this.probeLatency = new RollingLatencyStats(latencyWindow);
+        log.info("Serving cached probe results, stale after ms:" + staleAfterMs);
+    }
+
+    /**
+     * Holds health at DOWN and skips probes until {@link #warmedUp(StartupPhaseTimer)}, for checkers that defer connecting to Redis.
+     */
+    protected void awaitWarmUp() {
+        warm = false;
+    }
+
+    protected void warmedUp(StartupPhaseTimer phases) {
+        startupPhases = phases;
+        warm = true;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Runs the actual lock and cache checks against Redis, recording the outcome on the builder.
+     */
+    protected abstract void probe(Health.Builder builder) throws Exception;
+
+    @Scheduled(fixedRateString = "#{@'" + RedisCheckerProperties.BEAN_NAME + "'.probe.intervalMs}",
+            initialDelayString = "#{@'" + RedisCheckerProperties.BEAN_NAME + "'.probe.initialDelayMs}")
+    public void runProbe() {
+        if (!warm) {
+            return;
+        }
+        Health.Builder builder = new Health.Builder();
+        long start = System.nanoTime();
+        try {
+            probe(builder);
+        } catch (Exception e) {
+            log.log(Level.SEVERE, "Redis probe failed", e);
+            builder.down(e);
+        }
+        long elapsed = System.nanoTime() - start;
+        probeLatency.record(elapsed);
+        lastProbe.set(new ProbeSnapshot(builder.build(), System.currentTimeMillis(), elapsed));
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (!warm) {
+            builder.down().withDetail("warmingUp", true);
+            return;
+        }
+        StartupPhaseTimer phases = startupPhases;
+        if (phases != null) {
+            builder.withDetail("startupPhasesMs", phases.durationsMs());
+        }
+        ProbeSnapshot snapshot = lastProbe.get();
+        if (snapshot == null) {
+            builder.down().withDetail("probe", "No probe has completed yet");
+            return;
+        }
+        long ageMs = System.currentTimeMillis() - snapshot.completedAtMs();
+        builder.status(snapshot.health().getStatus())
+                .withDetails(snapshot.health().getDetails())
+                .withDetail("probeAgeMs", ageMs)
+                .withDetail("probeDurationMs", RollingLatencyStats.toMillis(snapshot.durationNanos()))
+                .withDetail("probeLatency", probeLatency.summary());
+        if (ageMs > staleAfterMs) {
+            builder.down().withDetail("stale", true);
+        }
+    }
+
+    private record ProbeSnapshot(Health health, long completedAtMs, long durationNanos) {
+    }
+}
@@ -1,12 +1,21 @@
 package io.harness.redis.tester;
 
 import org.redisson.spring.starter.RedissonAutoConfiguration;
+import org.redisson.spring.starter.RedissonAutoConfigurationCustomizer;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @ConditionalOnProperty(value = "redis.checker.driver", havingValue = "redisson")
 @ImportAutoConfiguration(RedissonAutoConfiguration.class)
 public class EnableRedissonConfiguration {
+
+    // Redisson.create() otherwise blocks context startup on sentinel discovery and the minimum idle connections
+    @Bean
+    @ConditionalOnProperty(value = "redis.checker.startup.lazy", havingValue = "true")
+    public RedissonAutoConfigurationCustomizer lazyRedissonInitialization() {
+        return config -> config.setLazyInitialization(true);
+    }
 }
@@ -0,0 +1,211 @@
+package io.harness.redis.tester;
+
+import io.harness.redis.tester.RedisNodeMeters.NodeId;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.sentinel.api.StatefulRedisSentinelConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Lettuce counterpart of {@link RedissonNodeProber}: discovers the master and replicas through the sentinels, then
+ * pings every node concurrently over its own long-lived connection and records replica lag.  Connections to nodes
+ * that leave the topology are closed.  Runs on its own schedule so the aggregate health result is never delayed.
+ */
+@Log
+@Component
+@ConditionalOnProperty(value = "redis.checker.driver", havingValue = "lettuce")
+public class LettuceNodeProber implements AutoCloseable {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisNodeMeters meters;
+    private final Duration pingTimeout;
+    private final Map<NodeId, StatefulRedisConnection<String, String>> nodeConnections = new ConcurrentHashMap<>();
+    private final Map<NodeId, StatefulRedisSentinelConnection<String, String>> sentinelConnections = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LettuceNodeProber(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry, @Value("${redis.checker.nodes.pingTimeoutMs:2000}") long pingTimeoutMs) {
+        this.connectionFactory = connectionFactory;
+        this.meters = new RedisNodeMeters(meterRegistry, "lettuce");
+        this.pingTimeout = Duration.ofMillis(pingTimeoutMs);
+    }
+
+    @Scheduled(fixedRateString = "${redis.checker.nodes.intervalMs:10000}")
+    public void probeNodes() {
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuce && lettuce.getRequiredNativeClient() instanceof RedisClient client)) {
+            log.fine("Per-node probing needs a standalone or sentinel Lettuce client");
+            return;
+        }
+        try {
+            Map<NodeId, RedisURI> nodes = new LinkedHashMap<>();
+            Set<NodeId> sentinels = new HashSet<>();
+            NodeId master;
+            RedisSentinelConfiguration sentinelConfig = lettuce.getSentinelConfiguration();
+            if (sentinelConfig != null) {
+                String masterName = sentinelConfig.getMaster().getName();
+                StatefulRedisSentinelConnection<String, String> discovery = null;
+                for (RedisNode sentinel : sentinelConfig.getSentinels()) {
+                    NodeId id = new NodeId("sentinel", sentinel.getHost() + ":" + sentinel.getPort());
+                    sentinels.add(id);
+                    StatefulRedisSentinelConnection<String, String> connection = sentinelConnection(client, id, sentinel, sentinelConfig.getSentinelPassword());
+                    if (connection != null) {
+                        if (discovery == null) {
+                            discovery = connection;
+                        }
+                        ping(id, connection.async().ping());
+                    } else {
+                        meters.recordPing(id, 0, false);
+                    }
+                }
+                if (discovery == null) {
+                    log.warning("No sentinel reachable to discover the topology");
+                    return;
+                }
+                Map<String, String> masterInfo = discovery.sync().master(masterName);
+                master = new NodeId("master", masterInfo.get("ip") + ":" + masterInfo.get("port"));
+                nodes.put(master, uri(masterInfo.get("ip"), Integer.parseInt(masterInfo.get("port")), sentinelConfig.getPassword()));
+                for (Map<String, String> replica : discovery.sync().replicas(masterName)) {
+                    nodes.put(new NodeId("replica", replica.get("ip") + ":" + replica.get("port")),
+                            uri(replica.get("ip"), Integer.parseInt(replica.get("port")), sentinelConfig.getPassword()));
+                }
+            } else {
+                String host = lettuce.getStandaloneConfiguration().getHostName();
+                int port = lettuce.getStandaloneConfiguration().getPort();
+                master = new NodeId("master", host + ":" + port);
+                nodes.put(master, uri(host, port, lettuce.getStandaloneConfiguration().getPassword()));
+            }
+
+            Set<NodeId> round = new HashSet<>(sentinels);
+            round.addAll(nodes.keySet());
+            meters.beginRound(round);
+            closeDeparted(nodeConnections, nodes.keySet());
+            closeDeparted(sentinelConnections, sentinels);
+            Map<NodeId, RedisFuture<String>> replication = new LinkedHashMap<>();
+            nodes.forEach((id, uri) -> {
+                StatefulRedisConnection<String, String> connection = nodeConnection(client, id, uri);
+                if (connection == null) {
+                    meters.recordPing(id, 0, false);
+                    return;
+                }
+                ping(id, connection.async().ping());
+                replication.put(id, connection.async().info("replication"));
+            });
+            recordReplicationLag(master, replication);
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Unable to enumerate the Redis topology", e);
+        }
+    }
+
+    private void ping(NodeId node, RedisFuture<String> ping) {
+        long start = System.nanoTime();
+        ping.toCompletableFuture()
+                .orTimeout(pingTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((pong, e) -> meters.recordPing(node, System.nanoTime() - start, e == null && "PONG".equals(pong)));
+    }
+
+    private void recordReplicationLag(NodeId master, Map<NodeId, RedisFuture<String>> replication) {
+        RedisFuture<String> masterInfo = replication.get(master);
+        if (masterInfo == null) {
+            return;
+        }
+        replication.forEach((node, info) -> {
+            if (node.equals(master)) {
+                return;
+            }
+            masterInfo.thenAcceptBoth(info, (fromMaster, fromReplica) -> {
+                Long masterOffset = infoField(fromMaster, "master_repl_offset");
+                Long replicaOffset = infoField(fromReplica, "slave_repl_offset");
+                if (masterOffset != null && replicaOffset != null) {
+                    meters.recordReplicationLag(node, Math.max(0, masterOffset - replicaOffset));
+                }
+            });
+        });
+    }
+
+    private static Long infoField(String info, String field) {
+        for (String line : info.split("\r?\n")) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.substring(field.length() + 1).trim());
+            }
+        }
+        return null;
+    }
+
+    // After a failover the old master comes back, if at all, as a replica with a different id
+    private static void closeDeparted(Map<NodeId, ? extends StatefulConnection<String, String>> connections, Set<NodeId> current) {
+        connections.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey())) {
+                return false;
+            }
+            log.fine("Closing the connection to " + entry.getKey() + ", which left the topology");
+            entry.getValue().closeAsync();
+            return true;
+        });
+    }
+
+    // A node that cannot be reached gets retried from scratch on the next round
+    private StatefulRedisConnection<String, String> nodeConnection(RedisClient client, NodeId id, RedisURI uri) {
+        StatefulRedisConnection<String, String> connection = nodeConnections.get(id);
+        if (connection != null && connection.isOpen()) {
+            return connection;
+        }
+        try {
+            connection = client.connect(StringCodec.UTF8, uri);
+            nodeConnections.put(id, connection);
+            return connection;
+        } catch (Exception e) {
+            log.log(Level.FINE, "Unable to connect to " + id, e);
+            return null;
+        }
+    }
+
+    private StatefulRedisSentinelConnection<String, String> sentinelConnection(RedisClient client, NodeId id, RedisNode sentinel, RedisPassword password) {
+        StatefulRedisSentinelConnection<String, String> connection = sentinelConnections.get(id);
+        if (connection != null && connection.isOpen()) {
+            return connection;
+        }
+        try {
+            connection = client.connectSentinel(StringCodec.UTF8, uri(sentinel.getHost(), sentinel.getPort(), password));
+            sentinelConnections.put(id, connection);
+            return connection;
+        } catch (Exception e) {
+            log.log(Level.FINE, "Unable to connect to " + id, e);
+            return null;
+        }
+    }
+
+    private RedisURI uri(String host, int port, RedisPassword password) {
+        RedisURI.Builder builder = RedisURI.Builder.redis(host, port).withTimeout(pingTimeout);
+        password.toOptional().ifPresent(builder::withPassword);
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        nodeConnections.values().forEach(StatefulRedisConnection::close);
+        sentinelConnections.values().forEach(StatefulRedisSentinelConnection::close);
+    }
+}
@@ -0,0 +1,245 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.java.Log;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+import static io.harness.redis.tester.RedisTestServceApplication.LEASE_DURATION;
+
+/**
+ * Contended lock comparison: {@code threads} workers in this pod (and in every other replica running it at the same
+ * time) compete for {@code keys} shared lock names, holding each lock for {@code holdMs} under a
+ * {@link RedisTestServceApplication#LEASE_DURATION} lease.  Each implementation runs for {@code durationSeconds} in
+ * turn and reports acquisitions/sec, wait percentiles, Jain's fairness index over the workers and the number of
+ * pub/sub messages published on its unlock channels.
+ * <p>
+ * Start a run with {@code POST /actuator/lockcontention} and read the results with a GET.
+ */
+@Log
+@Endpoint(id = "lockcontention")
+@Component
+@ConditionalOnProperty(value = "redis.checker.contention.enabled", havingValue = "true")
+public class LockContentionRunner {
+
+    static final String KEY_PREFIX = "lock:CONTENTION - ";
+    static final String REGISTRY_KEY = "hCache/contention";
+    // Redisson publishes unlock notifications on redisson_lock__channel:{name}, the fair lock adds a per-thread suffix
+    private static final String[] PUBSUB_PATTERNS = {"redisson_lock__channel*", REGISTRY_KEY + "*"};
+
+    private final RedissonClient redisson;
+    private final RedisConnectionFactory connectionFactory;
+    private final MeterRegistry meterRegistry;
+    private final RedisCheckerProperties.Contention settings;
+    private final Map<String, Object> results = new LinkedHashMap<>();
+    private volatile Thread runner;
+
+    @Autowired
+    public LockContentionRunner(ObjectProvider<RedissonClient> redisson, RedisConnectionFactory connectionFactory,
+                                MeterRegistry meterRegistry, RedisCheckerProperties properties) {
+        this.redisson = redisson.getIfAvailable();
+        this.connectionFactory = connectionFactory;
+        this.meterRegistry = meterRegistry;
+        this.settings = properties.getContention();
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start() {
+        if (runner != null && runner.isAlive()) {
+            return Map.of("running", true);
+        }
+        synchronized (results) {
+            results.clear();
+        }
+        runner = new Thread(this::runAll, "lock-contention");
+        runner.setDaemon(true);
+        runner.start();
+        return Map.of("running", true, "implementations", settings.getImplementations());
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("running", runner != null && runner.isAlive());
+        report.put("threads", settings.getThreads());
+        report.put("keys", settings.getKeys());
+        report.put("holdMs", settings.getHoldMs());
+        synchronized (results) {
+            report.put("results", new LinkedHashMap<>(results));
+        }
+        return report;
+    }
+
+    private void runAll() {
+        for (String implementation : settings.getImplementations()) {
+            try {
+                Map<String, Object> result = run(implementation);
+                log.info("Lock contention [" + implementation + "]: " + result);
+                synchronized (results) {
+                    results.put(implementation, result);
+                }
+            } catch (Exception e) {
+                log.log(Level.WARNING, "Lock contention run failed for " + implementation, e);
+                synchronized (results) {
+                    results.put(implementation, Map.of("error", String.valueOf(e)));
+                }
+            }
+        }
+    }
+
+    Map<String, Object> run(String implementation) throws Exception {
+        RedisLockRegistry registry = null;
+        Function<String, Lock> locks;
+        switch (implementation) {
+            case "rlock" -> locks = requireRedisson(implementation)::getLock;
+            case "spin" -> locks = requireRedisson(implementation)::getSpinLock;
+            case "fenced" -> locks = requireRedisson(implementation)::getFencedLock;
+            case "fair" -> locks = requireRedisson(implementation)::getFairLock;
+            case "registry", "registry-pubsub" -> {
+                registry = new RedisLockRegistry(connectionFactory, REGISTRY_KEY, LEASE_DURATION * 1000L);
+                if (implementation.equals("registry-pubsub")) {
+                    registry.setRedisLockType(RedisLockRegistry.RedisLockType.PUB_SUB_LOCK);
+                }
+                locks = registry::obtain;
+            }
+            default -> throw new IllegalArgumentException("Unknown lock implementation " + implementation);
+        }
+
+        Timer acquired = timer(implementation, "success");
+        Timer timedOut = timer(implementation, "timeout");
+        RollingLatencyStats waits = new RollingLatencyStats(settings.getLatencyWindow());
+        long[] perThread = new long[settings.getThreads()];
+        AtomicLong failures = new AtomicLong();
+        AtomicLong published = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+
+        RedisConnection subscriber = connectionFactory.getConnection();
+        try {
+            subscriber.pSubscribe((message, pattern) -> published.incrementAndGet(), toBytes(PUBSUB_PATTERNS));
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < settings.getThreads(); i++) {
+                int worker = i;
+                Thread thread = new Thread(() -> {
+                    int next = worker;
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        Lock lock = locks.apply(KEY_PREFIX + (next++ % settings.getKeys()));
+                        long start = System.nanoTime();
+                        try {
+                            if (tryLock(lock)) {
+                                long waited = System.nanoTime() - start;
+                                acquired.record(waited, TimeUnit.NANOSECONDS);
+                                waits.record(waited);
+                                perThread[worker]++;
+                                try {
+                                    Thread.sleep(settings.getHoldMs());
+                                } finally {
+                                    lock.unlock();
+                                }
+                            } else {
+                                timedOut.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                                failures.incrementAndGet();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                            log.log(Level.FINE, "Contended lock attempt failed", e);
+                        }
+                    }
+                }, "lock-contention-" + implementation + "-" + i);
+                workers.add(thread);
+                thread.start();
+            }
+            for (Thread thread : workers) {
+                thread.join();
+            }
+        } finally {
+            if (subscriber.getSubscription() != null) {
+                subscriber.getSubscription().close();
+            }
+            subscriber.close();
+            if (registry != null) {
+                registry.destroy();
+            }
+        }
+
+        long total = 0;
+        for (long count : perThread) {
+            total += count;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("acquisitions", total);
+        result.put("acquisitionsPerSecond", (double) total / settings.getDurationSeconds());
+        result.put("failures", failures.get());
+        result.put("waitMs", waits.summary());
+        result.put("fairness", jainIndex(perThread));
+        result.put("pubsubMessages", published.get());
+        result.put("pubsubMessagesPerAcquisition", total == 0 ? 0.0 : (double) published.get() / total);
+        return result;
+    }
+
+    private boolean tryLock(Lock lock) throws InterruptedException {
+        if (lock instanceof RLock rLock) {
+            return rLock.tryLock(settings.getWaitSeconds(), LEASE_DURATION, TimeUnit.SECONDS);
+        }
+        return lock.tryLock(settings.getWaitSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Jain's fairness index over per-worker acquisition counts: 1.0 when every worker got the same share, 1/n when a
+     * single worker got everything.
+     */
+    static double jainIndex(long[] counts) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (long count : counts) {
+            sum += count;
+            sumOfSquares += (double) count * count;
+        }
+        return sumOfSquares == 0 ? 1.0 : sum * sum / (counts.length * sumOfSquares);
+    }
+
+    private RedissonClient requireRedisson(String implementation) {
+        if (redisson == null) {
+            throw new IllegalStateException(implementation + " needs redis.checker.driver=redisson");
+        }
+        return redisson;
+    }
+
+    private Timer timer(String implementation, String outcome) {
+        return RedisOperationTimer.latencyTimer("redis.checker.contention.wait")
+                .description("Time waited to acquire a contended lock")
+                .tags("implementation", implementation, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static byte[][] toBytes(String... values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+}
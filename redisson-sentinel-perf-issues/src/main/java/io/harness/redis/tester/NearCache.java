@@ -0,0 +1,198 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.client.codec.StringCodec;
+
+import javax.cache.Cache;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded on-heap LRU tier in front of a Redisson JCache.  Reads are served locally until the entry's local TTL
+ * passes; writes go to Redis first and then publish the key on an invalidation topic so every other instance drops
+ * its copy.  Misses are never cached, so an absent key always costs a Redis read.
+ *
+ * A fill only lands if its key was not invalidated while its Redis read was in flight, otherwise a value read just
+ * before an update elsewhere would be cached for the whole TTL; evictions of other keys do not affect it.
+ * Invalidations published while the topic is not subscribed, e.g. across a reconnect or a sentinel failover, are
+ * lost, so the whole local tier and every fill in flight are dropped whenever Redisson (re)subscribes the topic or
+ * loses it.
+ */
+public class NearCache<V> implements AutoCloseable {
+
+    private static final String SEPARATOR = "|";
+
+    private final Cache<String, V> remote;
+    private final RTopic invalidations;
+    private final int listenerId;
+    private final int statusListenerId;
+    private final String origin = UUID.randomUUID().toString();
+    private final long ttlNanos;
+    private final Map<String, Entry<V>> local;
+    // Token of the fill in flight for each key, guarded by the local lock; evicting the key drops it so the fill
+    // cannot land, and clearing the tier drops them all
+    private final Map<String, Object> fills = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidatedEvictions;
+
+    public NearCache(Cache<String, V> remote, RedissonClient client, int maxEntries, long ttlMillis, MeterRegistry meterRegistry) {
+        this.remote = remote;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        Tags tags = Tags.of("cache", remote.getName());
+        this.hits = Counter.builder("redis.checker.nearcache.requests").tags(tags).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("redis.checker.nearcache.requests").tags(tags).tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("redis.checker.nearcache.evictions").tags(tags).tag("reason", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("redis.checker.nearcache.evictions").tags(tags).tag("reason", "expired").register(meterRegistry);
+        this.invalidatedEvictions = Counter.builder("redis.checker.nearcache.evictions").tags(tags).tag("reason", "invalidated").register(meterRegistry);
+        this.local = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                if (size() > maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        meterRegistry.gauge("redis.checker.nearcache.size", tags, this, NearCache::size);
+
+        this.invalidations = client.getTopic(remote.getName() + ":invalidations", StringCodec.INSTANCE);
+        this.listenerId = invalidations.addListener(String.class, (channel, message) -> {
+            int split = message.indexOf(SEPARATOR);
+            if (!message.substring(0, split).equals(origin) && evict(message.substring(split + 1))) {
+                invalidatedEvictions.increment();
+            }
+        });
+        this.statusListenerId = invalidations.addListener(new BaseStatusListener() {
+            @Override
+            public void onSubscribe(String channel) {
+                invalidatedEvictions.increment(clear());
+            }
+
+            @Override
+            public void onUnsubscribe(String channel) {
+                invalidatedEvictions.increment(clear());
+            }
+        });
+    }
+
+    public V get(String key) {
+        Object fill;
+        synchronized (local) {
+            Entry<V> entry = local.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.storedAtNanos() < ttlNanos) {
+                    hits.increment();
+                    return entry.value();
+                }
+                local.remove(key);
+                expiredEvictions.increment();
+            }
+            fill = beginFill(key);
+        }
+        misses.increment();
+        V value = null;
+        try {
+            value = remote.get(key);
+        } finally {
+            store(key, value, fill);
+        }
+        return value;
+    }
+
+    public boolean putIfAbsent(String key, V value) {
+        Object fill;
+        synchronized (local) {
+            fill = beginFill(key);
+        }
+        boolean written = false;
+        try {
+            written = remote.putIfAbsent(key, value);
+        } finally {
+            if (written) {
+                store(key, value, fill);
+            } else {
+                // Someone else owns the value, the local copy may be stale
+                evict(key);
+            }
+        }
+        if (written) {
+            publish(key);
+        }
+        return written;
+    }
+
+    public boolean remove(String key) {
+        boolean removed = remote.remove(key);
+        evict(key);
+        if (removed) {
+            publish(key);
+        }
+        return removed;
+    }
+
+    public int size() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    // Called under the local lock; a newer fill of the same key replaces this one
+    private Object beginFill(String key) {
+        Object fill = new Object();
+        fills.put(key, fill);
+        return fill;
+    }
+
+    // Skipped when the key was evicted, the tier cleared or a newer fill started since the fill began; a null value
+    // only ends the fill.  The next read goes to Redis again.
+    private void store(String key, V value, Object fill) {
+        synchronized (local) {
+            if (fills.get(key) != fill) {
+                return;
+            }
+            fills.remove(key);
+            if (value != null) {
+                local.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+    }
+
+    private boolean evict(String key) {
+        synchronized (local) {
+            fills.remove(key);
+            return local.remove(key) != null;
+        }
+    }
+
+    private int clear() {
+        synchronized (local) {
+            fills.clear();
+            int cleared = local.size();
+            local.clear();
+            return cleared;
+        }
+    }
+
+    private void publish(String key) {
+        invalidations.publishAsync(origin + SEPARATOR + key);
+    }
+
+    @Override
+    public void close() {
+        invalidations.removeListener(listenerId, statusListenerId);
+    }
+
+    private record Entry<V>(V value, long storedAtNanos) {
+    }
+}
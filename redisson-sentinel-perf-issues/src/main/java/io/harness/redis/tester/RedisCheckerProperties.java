@@ -0,0 +1,94 @@
+package io.harness.redis.tester;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Checker settings shared by both drivers.  The driver specific {@code redis.checker.timeoutSeconds} keeps its
+ * per-driver default on the checkers themselves.
+ */
+@Data
+@ConfigurationProperties(prefix = "redis.checker")
+public class RedisCheckerProperties {
+
+    // The name @EnableConfigurationProperties registers this bean under, for SpEL in annotations such as @Scheduled
+    static final String BEAN_NAME = "redis.checker-io.harness.redis.tester.RedisCheckerProperties";
+
+    public enum ProbeMode {
+        // lock, unlock, async lock, unlock and putIfAbsent as separate round trips
+        SEQUENTIAL,
+        // write, read and delete verification pipelined into a single round trip
+        BATCHED
+    }
+
+    // Codec for the checker's JCache, see CacheCodecs; anything but "client" costs a second Redisson client with its
+    // own connection pools
+    private String cacheCodec = CacheCodecs.CLIENT;
+    private Probe probe = new Probe();
+    private Keys keys = new Keys();
+    private Reactive reactive = new Reactive();
+    private Lock lock = new Lock();
+    private Contention contention = new Contention();
+    private NearCache nearCache = new NearCache();
+    private Startup startup = new Startup();
+
+    @Data
+    public static class Probe {
+        private long intervalMs = 5000;
+        private long initialDelayMs = 0;
+        private ProbeMode mode = ProbeMode.SEQUENTIAL;
+        private long staleAfterMs = 15000;
+        private int latencyWindow = 120;
+    }
+
+    @Data
+    public static class Keys {
+        private CacheKeyStrategy.Mode strategy = CacheKeyStrategy.Mode.UNIQUE;
+        private int ringSize = 16;
+        private long ttlSeconds = 60;
+        private long footprintIntervalMs = 60000;
+        private int footprintMaxKeys = 10000;
+    }
+
+    @Data
+    public static class Reactive {
+        private long stepTimeoutMs = 2000;
+    }
+
+    @Data
+    public static class Lock {
+        // Upper bound on locks RedisLockRegistry keeps in memory, least recently used are dropped first
+        private int cacheCapacity = 1000;
+        private long expireIntervalMs = 30000;
+        private long maxIdleMs = 60000;
+    }
+
+    @Data
+    public static class Contention {
+        private List<String> implementations = List.of("rlock", "spin", "fenced", "fair", "registry", "registry-pubsub");
+        private int threads = 16;
+        private int keys = 4;
+        private long holdMs = 5;
+        private long waitSeconds = 10;
+        private long durationSeconds = 30;
+        private int latencyWindow = 100000;
+    }
+
+    @Data
+    public static class NearCache {
+        // Redisson only: a local LRU tier in front of the JCache, invalidated over pub/sub
+        private boolean enabled = false;
+        private int maxEntries = 10000;
+        private long ttlMillis = 30000;
+    }
+
+    @Data
+    public static class Startup {
+        // Let the context start without touching Redis; connections and the JCache are set up by RedisStartupWarmup
+        private boolean lazy = false;
+        private int warmConnections = 8;
+        private long retryIntervalMs = 2000;
+    }
+}
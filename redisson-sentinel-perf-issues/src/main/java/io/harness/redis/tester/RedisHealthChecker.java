@@ -1,29 +1,47 @@
 package io.harness.redis.tester;
 
+import io.harness.redis.tester.RedisOperationTimer.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.java.Log;
+import org.redisson.Redisson;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RScriptAsync;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.redisson.connection.ServiceManager;
 import org.redisson.jcache.configuration.RedissonConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.actuate.health.AbstractHealthIndicator;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
 
 import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.configuration.Configuration;
 import javax.cache.configuration.MutableConfiguration;
-import javax.cache.expiry.AccessedExpiryPolicy;
+import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import static io.harness.redis.tester.RedisTestServceApplication.LEASE_DURATION;
@@ -32,64 +50,188 @@ import static io.harness.redis.tester.RedisTestServceApplication.LEASE_DURATION;
 @Log
 @Component
 @ConditionalOnProperty(value = "redis.checker.driver", havingValue = "redisson")
-public class RedisHealthChecker extends AbstractHealthIndicator {
+public class RedisHealthChecker extends CachedProbeHealthIndicator implements RedisWorkload {
+
+    static final String CACHE_NAME = "hCache/pmsEventsCacheDeleteTest";
+    private static final String BATCH_KEY_PREFIX = "pmsEventsBatchProbe";
+    private static final String SERVER_TIME_SCRIPT = "return redis.call('TIME')";
+    private static final String WARMUP_KEY = "pmsEventsWarmup";
 
     private final RedissonClient client;
-    private final Cache<String, Integer> cache;
+    // Only set when the cache codec differs from the client's, see dedicatedCacheClient
+    private final RedissonClient cacheClient;
+    private final Configuration<String, Integer> cacheConfiguration;
+    private final RedisCheckerProperties.NearCache nearCacheSettings;
     private final MeterRegistry meterRegistry;
+    private final int warmConnections;
+    private volatile Cache<String, Integer> cache;
+    @Getter
+    private final RedisOperationTimer operationTimer;
     private final int timeoutSeconds;
+    private final RedisCheckerProperties.ProbeMode probeMode;
+    private final long keyTtlSeconds;
+    private final CacheKeyStrategy probeKeys;
+    private final CacheKeyStrategy loadKeys;
+    private final AtomicLong liveKeys = new AtomicLong();
+    private final AtomicLong liveBytes = new AtomicLong();
+    private volatile NearCache<Integer> nearCache;
 
     @Autowired
-    public RedisHealthChecker(RedissonClient client, MeterRegistry meterRegistry, @Value("${redis.checker.timeoutSeconds:0}") int timeoutSeconds) {
+    public RedisHealthChecker(RedissonClient client, MeterRegistry meterRegistry, RedisCheckerProperties properties,
+                              @Value("${redis.checker.timeoutSeconds:0}") int timeoutSeconds) {
+        super(properties.getProbe().getStaleAfterMs(), properties.getProbe().getLatencyWindow());
         this.client = client;
-        this.meterRegistry = meterRegistry;
+        this.operationTimer = new RedisOperationTimer(meterRegistry, "redisson", topology(client));
         this.timeoutSeconds = timeoutSeconds;
         log.info("Setting timeout seconds to " + timeoutSeconds);
+        this.probeMode = properties.getProbe().getMode();
+        RedisCheckerProperties.Keys keys = properties.getKeys();
+        this.keyTtlSeconds = keys.getTtlSeconds();
+        this.probeKeys = new CacheKeyStrategy(keys.getStrategy(), "pmsEventsCacheDeleteAfterTest", keys.getRingSize());
+        this.loadKeys = new CacheKeyStrategy(keys.getStrategy(), "pmsEventsCacheDeleteAfterLoad", keys.getRingSize());
         MutableConfiguration<String, Integer> jcacheConfig = new MutableConfiguration<>();
         jcacheConfig.setTypes(String.class, Integer.class);
-        jcacheConfig.setExpiryPolicyFactory(AccessedExpiryPolicy.factoryOf(Duration.THIRTY_MINUTES));
+        jcacheConfig.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, keys.getTtlSeconds())));
         jcacheConfig.setStatisticsEnabled(true);
         jcacheConfig.setManagementEnabled(true);
 
-        Configuration<String, Integer> config = RedissonConfiguration.fromInstance(client, jcacheConfig);
-        CacheManager manager = Caching.getCachingProvider().getCacheManager();
-        cache = manager.createCache("hCache/pmsEventsCacheDeleteTest", config);
+        this.cacheClient = dedicatedCacheClient(client, properties.getCacheCodec());
+        this.cacheConfiguration = RedissonConfiguration.fromInstance(cacheClient != null ? cacheClient : client, jcacheConfig);
+        this.nearCacheSettings = properties.getNearCache();
+        this.meterRegistry = meterRegistry;
+        this.warmConnections = properties.getStartup().getWarmConnections();
+        if (properties.getStartup().isLazy()) {
+            awaitWarmUp();
+        } else {
+            openCache();
+        }
+        meterRegistry.gauge("redis.checker.cache.keys", Tags.of("driver", "redisson"), liveKeys);
+        meterRegistry.gauge("redis.checker.cache.bytes", Tags.of("driver", "redisson"), liveBytes);
     }
 
+    // Releases the cache name in the shared JCache manager so another checker instance can create it again
     @Override
-    protected void doHealthCheck(Health.Builder builder) throws Exception {
+    public synchronized void close() {
+        if (nearCache != null) {
+            nearCache.close();
+        }
+        if (cache != null) {
+            cache.close();
+        }
+        if (cacheClient != null) {
+            cacheClient.shutdown();
+        }
+    }
+
+    private Cache<String, Integer> openCache() {
+        Cache<String, Integer> opened = cache;
+        if (opened != null) {
+            return opened;
+        }
+        synchronized (this) {
+            if (cache == null) {
+                CacheManager manager = Caching.getCachingProvider().getCacheManager();
+                Cache<String, Integer> created = manager.createCache(CACHE_NAME, cacheConfiguration);
+                if (nearCacheSettings.isEnabled()) {
+                    nearCache = new NearCache<>(created, client, nearCacheSettings.getMaxEntries(), nearCacheSettings.getTtlMillis(), meterRegistry);
+                }
+                cache = created;
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * The first command initializes a lazily created client (sentinel discovery and the minimum idle connections).
+     * After that the pools are filled with concurrent commands while the JCache is created, instead of one
+     * connection at a time as probe traffic arrives.
+     */
+    @Override
+    public void warmUp(StartupPhaseTimer phases) throws Exception {
+        phases.time("redisson.connect", () -> client.getBucket(WARMUP_KEY, StringCodec.INSTANCE).isExists());
+        long poolStart = System.nanoTime();
+        List<CompletableFuture<Boolean>> connections = new ArrayList<>();
+        for (int i = 0; i < warmConnections; i++) {
+            connections.add(client.getBucket(WARMUP_KEY, StringCodec.INSTANCE).isExistsAsync().toCompletableFuture());
+        }
+        CompletableFuture<Void> pools = CompletableFuture.allOf(connections.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, e) -> phases.record("redisson.pools", System.nanoTime() - poolStart));
+        phases.time("jcache.create", this::openCache);
+        pools.get();
+        warmedUp(phases);
+    }
+
+    /**
+     * A JCache always encodes with its Redisson instance's codec, so a codec other than the client's needs a second
+     * client built from a copy of the client config.  It shares the client's event loop and listener executor, so it
+     * adds no threads, but its connection pools are its own and the redis.checker.pool gauges do not cover them.
+     */
+    private static RedissonClient dedicatedCacheClient(RedissonClient client, String codecName) {
+        Codec codec = CacheCodecs.forName(codecName);
+        if (codec == null || codec.getClass() == client.getConfig().getCodec().getClass()) {
+            return null;
+        }
+        log.warning("Cache codec " + codec.getClass().getSimpleName() + " needs a dedicated Redisson client for " + CACHE_NAME
+                + "; its connection pools are separate from the client's and not covered by the pool gauges");
+        Config config = new Config(client.getConfig());
+        config.setCodec(codec);
+        if (client instanceof Redisson redisson) {
+            ServiceManager serviceManager = redisson.getConnectionManager().getServiceManager();
+            // Redisson only shuts down a group and executor it created, so closing the cache client leaves these running
+            config.setEventLoopGroup(serviceManager.getGroup());
+            config.setExecutor(serviceManager.getExecutor());
+        }
+        return Redisson.create(config);
+    }
+
+    private static String topology(RedissonClient client) {
+        if (client.getConfig().isSentinelConfig()) {
+            return "sentinel";
+        }
+        return client.getConfig().isClusterConfig() ? "cluster" : "single";
+    }
+
+    @Override
+    protected void probe(Health.Builder builder) throws Exception {
+        if (probeMode == RedisCheckerProperties.ProbeMode.BATCHED) {
+            probeBatched(builder);
+            return;
+        }
         // Check locks
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
         String uuid = UUID.randomUUID().toString();
         String lockId = "lock:HEALTH_CHECK - " + uuid;
-        client.getLock(lockId).lock(LEASE_DURATION, TimeUnit.SECONDS);
-        stopWatch.stop();
-        meterRegistry.timer("lockTimeMs").record(stopWatch.getTotalTimeMillis(), TimeUnit.MILLISECONDS);
-
-
-        builder.withDetail("lockTimeMs", stopWatch.getTotalTimeMillis()).withDetail("lockId", lockId);
-        log.info("Lock time ms:" + stopWatch.getTotalTimeMillis());
-        client.getLock(lockId).unlock();
-        stopWatch = new StopWatch();
+        RLock lock = client.getLock(lockId);
+        Timed<Void> lockTime = operationTimer.record("lock.acquire", () -> {
+            lock.lock(LEASE_DURATION, TimeUnit.SECONDS);
+            return null;
+        });
+        builder.withDetail("lockTimeMs", lockTime.millis()).withDetail("lockId", lockId);
+        log.info("Lock time ms:" + lockTime.millis());
+        Timed<Void> unlockTime = operationTimer.record("lock.release", () -> {
+            lock.unlock();
+            return null;
+        });
+        builder.withDetail("unlockTimeMs", unlockTime.millis());
         // Eval cache next...
         try {
-            stopWatch.start();
-            Boolean locked;
+            Timed<Boolean> locked;
             if (client.getConfig().isSentinelConfig()) {
                 log.fine("[RedisSentinelMode]: Trying Async lock");
-                locked = client.getLock(lockId).tryLockAsync(timeoutSeconds, LEASE_DURATION, TimeUnit.SECONDS).get(timeoutSeconds, TimeUnit.SECONDS);
+                locked = operationTimer.record("lock.tryAsync",
+                        () -> lock.tryLockAsync(timeoutSeconds, LEASE_DURATION, TimeUnit.SECONDS).get(timeoutSeconds, TimeUnit.SECONDS));
                 log.fine("[RedisSentinelMode]: Async lock acquired successfully");
             } else {
-                locked = client.getLock(lockId).tryLock(timeoutSeconds, LEASE_DURATION, TimeUnit.SECONDS);
+                locked = operationTimer.record("lock.try", () -> lock.tryLock(timeoutSeconds, LEASE_DURATION, TimeUnit.SECONDS));
             }
-            client.getLock(lockId).unlock();
-            stopWatch.stop();
-            meterRegistry.timer("asyncLockDurationMs").record(stopWatch.getTotalTimeMillis(), TimeUnit.MILLISECONDS);
-            log.info("Async lock time ms:" + stopWatch.getTotalTimeMillis());
+            Timed<Void> asyncUnlockTime = operationTimer.record("lock.release", () -> {
+                lock.unlock();
+                return null;
+            });
+            double asyncLockDurationMs = locked.millis() + asyncUnlockTime.millis();
+            log.info("Async lock time ms:" + asyncLockDurationMs);
 
-            builder.withDetail("asyncLockStatus", locked);
-            builder.withDetail("asyncLockDurationMs", stopWatch.getTotalTimeMillis());
+            builder.withDetail("asyncLockStatus", locked.result());
+            builder.withDetail("asyncLockDurationMs", asyncLockDurationMs);
             builder.up();
         }catch (Exception e) {
             builder.down();
@@ -97,19 +239,108 @@ public class RedisHealthChecker extends AbstractHealthIndicator {
         }
 
 
-        stopWatch = new StopWatch();
-        stopWatch.start();
-        boolean succeeded = cache.putIfAbsent("pmsEventsCacheDeleteAfterTest"+uuid, 1);
-        stopWatch.stop();
-        meterRegistry.timer("putIfAbsent").record(stopWatch.getTotalTimeMillis(), TimeUnit.MILLISECONDS);
-        builder.withDetail("putIfAbsentMs", stopWatch.getTotalTimeMillis());
-        log.info("Cache put time ms:" + stopWatch.getTotalTimeMillis());
+        String key = probeKeys.nextKey();
+        Timed<Boolean> putTime = writeCacheKey(probeKeys, key);
+        boolean succeeded = putTime.result();
+        builder.withDetail("putIfAbsentMs", putTime.millis());
+        log.info("Cache put time ms:" + putTime.millis());
 
 
         if (!succeeded) {
-            log.severe("Unable to write key pmsEventsCacheDeleteAfterTest"+uuid);
+            log.severe("Unable to write key " + key);
+            builder.down();
+            builder.withDetail(key, succeeded);
+        }
+    }
+
+    /**
+     * Sends the write, read back and delete of a probe key as one {@link RBatch}, bracketed by server TIME calls, so
+     * the whole probe costs a single round trip.
+     */
+    private void probeBatched(Health.Builder builder) throws Exception {
+        String key = BATCH_KEY_PREFIX + UUID.randomUUID();
+        String value = String.valueOf(System.currentTimeMillis());
+        RBatch batch = client.createBatch(BatchOptions.defaults());
+        RScriptAsync script = batch.getScript(StringCodec.INSTANCE);
+        RBucketAsync<String> bucket = batch.getBucket(key, StringCodec.INSTANCE);
+        BatchProbeTimings timings = new BatchProbeTimings();
+        RFuture<List<Object>> timeBefore = script.evalAsync(RScript.Mode.READ_WRITE, SERVER_TIME_SCRIPT, RScript.ReturnType.MULTI);
+        RFuture<Boolean> written = bucket.setIfAbsentAsync(value, java.time.Duration.ofSeconds(keyTtlSeconds));
+        RFuture<String> read = bucket.getAsync();
+        RFuture<Boolean> deleted = bucket.deleteAsync();
+        RFuture<List<Object>> timeAfter = script.evalAsync(RScript.Mode.READ_WRITE, SERVER_TIME_SCRIPT, RScript.ReturnType.MULTI);
+        written.whenComplete((result, e) -> timings.replied("setIfAbsent"));
+        read.whenComplete((result, e) -> timings.replied("get"));
+        deleted.whenComplete((result, e) -> timings.replied("delete"));
+
+        timings.markSent();
+        Timed<BatchResult<?>> roundTrip = operationTimer.record("batch.execute", batch::execute);
+        timings.report(builder, operationTimer, roundTrip.nanos(), timeBefore.get(), timeAfter.get());
+        log.info("Batch probe time ms:" + roundTrip.millis());
+
+        boolean verified = written.get() && value.equals(read.get()) && deleted.get();
+        builder.withDetail("batchVerified", verified).withDetail("batchKey", key);
+        if (verified) {
+            builder.up();
+        } else {
+            log.severe("Batch probe could not write, read back and delete " + key);
             builder.down();
-            builder.withDetail("pmsEventsCacheDeleteAfterTest"+uuid, succeeded);
+        }
+    }
+
+    private Timed<Boolean> writeCacheKey(CacheKeyStrategy keys, String key) throws Exception {
+        Cache<String, Integer> cache = openCache();
+        NearCache<Integer> nearCache = this.nearCache;
+        Timed<Boolean> putTime = operationTimer.record("cache.putIfAbsent",
+                () -> nearCache != null ? nearCache.putIfAbsent(key, 1) : cache.putIfAbsent(key, 1));
+        String remove = keys.keyToRemoveAfter(key);
+        if (remove != null) {
+            operationTimer.record("cache.remove", () -> nearCache != null ? nearCache.remove(remove) : cache.remove(remove));
+        }
+        return putTime;
+    }
+
+    /**
+     * JCache keeps every entry in one hash named after the cache plus a timeout sorted set, so the footprint is two
+     * O(1) lookups regardless of the key strategy.
+     */
+    @Scheduled(fixedRateString = "#{@'" + RedisCheckerProperties.BEAN_NAME + "'.keys.footprintIntervalMs}")
+    public void refreshKeyFootprint() {
+        try {
+            RMap<Object, Object> entries = client.getMap(CACHE_NAME);
+            liveKeys.set(entries.size());
+            liveBytes.set(entries.sizeInMemory() + client.getScoredSortedSet("jcache_timeout_set:{" + CACHE_NAME + "}").sizeInMemory());
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Unable to measure cache footprint", e);
+        }
+    }
+
+    @Override
+    public void runOnce() throws Exception {
+        String uuid = UUID.randomUUID().toString();
+        RLock lock = client.getLock("lock:HEALTH_CHECK - " + uuid);
+        operationTimer.record("lock.acquire", () -> {
+            lock.lock(LEASE_DURATION, TimeUnit.SECONDS);
+            return null;
+        });
+        operationTimer.record("lock.release", () -> {
+            lock.unlock();
+            return null;
+        });
+        Timed<Boolean> locked = operationTimer.record("lock.tryAsync",
+                () -> lock.tryLockAsync(timeoutSeconds, LEASE_DURATION, TimeUnit.SECONDS).get(LEASE_DURATION + timeoutSeconds, TimeUnit.SECONDS));
+        if (locked.result()) {
+            operationTimer.record("lock.release", () -> {
+                lock.unlock();
+                return null;
+            });
+        }
+        String key = loadKeys.nextKey();
+        writeCacheKey(loadKeys, key);
+        NearCache<Integer> nearCache = this.nearCache;
+        if (nearCache != null) {
+            // The services this models read far more than they write
+            operationTimer.record("cache.get", () -> nearCache.get(key));
         }
     }
 }
@@ -1,70 +1,330 @@
 package io.harness.redis.tester;
 
+import io.harness.redis.tester.RedisOperationTimer.Timed;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.java.Log;
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.actuate.health.AbstractHealthIndicator;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.Cache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
-
-import static io.harness.redis.tester.RedisTestServceApplication.LEASE_DURATION;
+import java.util.logging.Level;
 
 @Setter
 @Log
 @Component
 @ConditionalOnProperty(value = "redis.checker.driver", havingValue = "lettuce")
-public class RedisLettuceHealthChecker extends AbstractHealthIndicator {
+public class RedisLettuceHealthChecker extends CachedProbeHealthIndicator implements RedisWorkload {
+
+    static final String CACHE_NAME = "hCache/pmsEventsCacheDeleteTestSpring";
+    private static final String BATCH_KEY_PREFIX = "pmsEventsBatchProbeSpring";
 
+    private final RedisConnectionFactory connectionFactory;
     private final Cache cache;
-    private final MeterRegistry meterRegistry;
+    @Getter
+    private final RedisOperationTimer operationTimer;
     private final RedisLockRegistry lockRegistry;
     private final int timeoutSeconds;
+    private final RedisCheckerProperties.ProbeMode probeMode;
+    private final long keyTtlSeconds;
+    private final CacheKeyStrategy probeKeys;
+    private final CacheKeyStrategy loadKeys;
+    private final int footprintMaxKeys;
+    private final AtomicLong liveKeys = new AtomicLong();
+    private final AtomicLong liveBytes = new AtomicLong();
+    // The registry's own lock map, read for its size only
+    private final Map<?, ?> registryLocks;
+    private final long lockMaxIdleMs;
+    private final AtomicLong obtainedLocks = new AtomicLong();
+    private final AtomicLong expiredLocks = new AtomicLong();
+    // Dedicated connection with manual flushing for the batched probe, so the shared connection keeps auto-flush
+    private StatefulRedisConnection<byte[], byte[]> batchConnection;
 
     @Autowired
-    public RedisLettuceHealthChecker(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry, @Value("${redis.checker.timeoutSeconds:1}") int timeoutSeconds) {
+    public RedisLettuceHealthChecker(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry, RedisCheckerProperties properties,
+                                     @Value("${redis.checker.timeoutSeconds:1}") int timeoutSeconds) {
+        super(properties.getProbe().getStaleAfterMs(), properties.getProbe().getLatencyWindow());
+        this.connectionFactory = connectionFactory;
         this.timeoutSeconds = timeoutSeconds;
         log.info("Setting timeout seconds to " + timeoutSeconds);
-        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory).cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()).build();
-        this.cache = cacheManager.getCache("hCache/pmsEventsCacheDeleteTestSpring");
-        this.lockRegistry = new RedisLockRegistry(connectionFactory, "hCache/pmsEventsCacheDeleteTestSpring", 30 * 1000);
-        this.meterRegistry = meterRegistry;
+        this.probeMode = properties.getProbe().getMode();
+        RedisCheckerProperties.Keys keys = properties.getKeys();
+        this.keyTtlSeconds = keys.getTtlSeconds();
+        this.probeKeys = new CacheKeyStrategy(keys.getStrategy(), "pmsEventsCacheDeleteTestSpring", keys.getRingSize());
+        this.loadKeys = new CacheKeyStrategy(keys.getStrategy(), "pmsEventsCacheDeleteTestSpringLoad", keys.getRingSize());
+        this.footprintMaxKeys = keys.getFootprintMaxKeys();
+        // defaultCacheConfig() has no TTL at all, so every probe key used to live forever
+        RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofSeconds(keys.getTtlSeconds()));
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory).cacheDefaults(cacheConfig).build();
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.lockRegistry = new RedisLockRegistry(connectionFactory, CACHE_NAME, 30 * 1000);
+        // Every probe obtains a fresh lock id and the registry keeps each one until evicted, so bound it
+        RedisCheckerProperties.Lock locks = properties.getLock();
+        this.lockRegistry.setCacheCapacity(locks.getCacheCapacity());
+        this.lockMaxIdleMs = locks.getMaxIdleMs();
+        this.registryLocks = registryLocks(lockRegistry);
+        meterRegistry.gauge("redis.checker.lock.registry.size", Tags.of("driver", "lettuce"), this, RedisLettuceHealthChecker::lockRegistrySize);
+        // Lock ids are never reused, so every obtain adds an entry and whatever is neither live nor expired was evicted
+        FunctionCounter.builder("redis.checker.lock.registry.evictions", this,
+                        checker -> checker.obtainedLocks.get() - checker.expiredLocks.get() - checker.lockRegistrySize())
+                .tag("driver", "lettuce").tag("reason", "capacity")
+                .description("Locks dropped from the in-memory RedisLockRegistry").register(meterRegistry);
+        FunctionCounter.builder("redis.checker.lock.registry.evictions", expiredLocks, AtomicLong::get)
+                .tag("driver", "lettuce").tag("reason", "expired")
+                .description("Locks dropped from the in-memory RedisLockRegistry").register(meterRegistry);
+        this.operationTimer = new RedisOperationTimer(meterRegistry, "lettuce", topology(connectionFactory));
+        meterRegistry.gauge("redis.checker.cache.keys", Tags.of("driver", "lettuce"), liveKeys);
+        meterRegistry.gauge("redis.checker.cache.bytes", Tags.of("driver", "lettuce"), liveBytes);
+        if (properties.getStartup().isLazy()) {
+            awaitWarmUp();
+        }
+    }
+
+    /**
+     * Lettuce and the cache manager already connect on first use, so warming up means opening the shared native
+     * connection (and the batch connection when batching) and loading the registry's lock script once.
+     */
+    @Override
+    public void warmUp(StartupPhaseTimer phases) throws Exception {
+        phases.time("lettuce.connect", () -> {
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                return connection.ping();
+            }
+        });
+        if (probeMode == RedisCheckerProperties.ProbeMode.BATCHED) {
+            phases.time("lettuce.batchConnection", this::batchConnection);
+        }
+        phases.time("lettuce.lockRegistry", () -> {
+            Lock lock = obtainLock("lock:HEALTH_CHECK - warmup-" + UUID.randomUUID());
+            if (lock.tryLock(timeoutSeconds, TimeUnit.SECONDS)) {
+                lock.unlock();
+            }
+            return null;
+        });
+        warmedUp(phases);
+    }
+
+    @Override
+    public void close() {
+        lockRegistry.destroy();
+        if (batchConnection != null) {
+            batchConnection.close();
+        }
+    }
+
+    /**
+     * RedisLockRegistry keeps its locks in a private map and has no size accessor, so read the map itself rather than
+     * mirroring the capacity and expiry rules.
+     */
+    private static Map<?, ?> registryLocks(RedisLockRegistry lockRegistry) {
+        Object locks = new DirectFieldAccessor(lockRegistry).getPropertyValue("locks");
+        if (!(locks instanceof Map<?, ?> map)) {
+            throw new IllegalStateException("RedisLockRegistry has no lock map to measure");
+        }
+        return map;
+    }
+
+    // Package-private so tests can stand in a lock that cannot be taken
+    Lock obtainLock(String lockId) {
+        obtainedLocks.incrementAndGet();
+        return lockRegistry.obtain(lockId);
+    }
+
+    // Locks obtained while this runs are counted as not expired, so under load the expired count can read low
+    @Scheduled(fixedRateString = "#{@'" + RedisCheckerProperties.BEAN_NAME + "'.lock.expireIntervalMs}")
+    public void expireUnusedLocks() {
+        int before = lockRegistrySize();
+        lockRegistry.expireUnusedOlderThan(lockMaxIdleMs);
+        expiredLocks.addAndGet(Math.max(0, before - lockRegistrySize()));
+    }
+
+    int lockRegistrySize() {
+        return registryLocks.size();
+    }
+
+    private static String topology(RedisConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof LettuceConnectionFactory lettuce) {
+            if (lettuce.getSentinelConfiguration() != null) {
+                return "sentinel";
+            }
+            if (lettuce.getClusterConfiguration() != null) {
+                return "cluster";
+            }
+        }
+        return "single";
     }
 
     @Override
-    protected void doHealthCheck(Health.Builder builder) throws Exception {
+    protected void probe(Health.Builder builder) throws Exception {
+        if (probeMode == RedisCheckerProperties.ProbeMode.BATCHED) {
+            probeBatched(builder);
+            return;
+        }
         // Check locks
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
         String uuid = UUID.randomUUID().toString();
         String lockId = "lock:HEALTH_CHECK - " + uuid;
-        Lock lock = lockRegistry.obtain(lockId);
-        log.info("Lock time ms:" + stopWatch.getTotalTimeMillis());
-        if (lock.tryLock(timeoutSeconds, TimeUnit.SECONDS)) {
-            lock.unlock();
+        Lock lock = obtainLock(lockId);
+        Timed<Boolean> lockTime = operationTimer.record("lock.try", () -> lock.tryLock(timeoutSeconds, TimeUnit.SECONDS));
+        log.info("Lock time ms:" + lockTime.millis());
+        if (lockTime.result()) {
+            Timed<Void> unlockTime = operationTimer.record("lock.release", () -> {
+                lock.unlock();
+                return null;
+            });
+            builder.withDetail("unlockTimeMs", unlockTime.millis());
         }else {
-            builder.down().withDetail("tryLockFialure", false).withDetail("lockId", lockId);
+            // The snapshot is served until the next probe, so a lock outage must not fall through to up() below
+            builder.down().withDetail("tryLockFialure", false).withDetail("lockId", lockId).withDetail("lockTimeMs", lockTime.millis());
+            return;
         }
-        builder.withDetail("lockTimeMs", stopWatch.getTotalTimeMillis()).withDetail("lockId", lockId);
-        stopWatch = new StopWatch();
-        stopWatch.start();
-        cache.putIfAbsent("pmsEventsCacheDeleteTestSpring" + uuid, 1);
-        stopWatch.stop();
-        meterRegistry.timer("putIfAbsent").record(stopWatch.getTotalTimeMillis(), TimeUnit.MILLISECONDS);
-        builder.withDetail("putIfAbsent", stopWatch.getTotalTimeMillis());
-        log.info("Cache put time ms:" + stopWatch.getTotalTimeMillis());
+        builder.withDetail("lockTimeMs", lockTime.millis()).withDetail("lockId", lockId);
+        Timed<Cache.ValueWrapper> putTime = writeCacheKey(probeKeys, probeKeys.nextKey());
+        builder.withDetail("putIfAbsent", putTime.millis());
+        log.info("Cache put time ms:" + putTime.millis());
         builder.up();
     }
+
+    /**
+     * Queues the write, read back and delete of a probe key with auto-flush off and sends them with a single flush,
+     * bracketed by server TIME calls, so the whole probe costs one round trip.
+     */
+    private void probeBatched(Health.Builder builder) throws Exception {
+        byte[] key = (BATCH_KEY_PREFIX + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        byte[] value = String.valueOf(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8);
+        RedisAsyncCommands<byte[], byte[]> commands = batchConnection().async();
+        BatchProbeTimings timings = new BatchProbeTimings();
+        RedisFuture<List<byte[]>> timeBefore = commands.time();
+        RedisFuture<String> written = commands.set(key, value, SetArgs.Builder.nx().ex(keyTtlSeconds));
+        RedisFuture<byte[]> read = commands.get(key);
+        RedisFuture<Long> deleted = commands.del(key);
+        RedisFuture<List<byte[]>> timeAfter = commands.time();
+        written.whenComplete((result, e) -> timings.replied("setIfAbsent"));
+        read.whenComplete((result, e) -> timings.replied("get"));
+        deleted.whenComplete((result, e) -> timings.replied("delete"));
+
+        timings.markSent();
+        Timed<Boolean> roundTrip;
+        try {
+            roundTrip = operationTimer.record("batch.execute", () -> {
+                batchConnection.flushCommands();
+                return LettuceFutures.awaitAll(timeoutSeconds, TimeUnit.SECONDS, timeBefore, written, read, deleted, timeAfter);
+            });
+        } catch (Exception e) {
+            resetBatchConnection();
+            throw e;
+        }
+        if (!roundTrip.result()) {
+            // The futures may never complete, so none of them can be read
+            resetBatchConnection();
+            log.severe("Batch probe got no reply within " + timeoutSeconds + "s");
+            builder.down().withDetail("batchTimedOut", true).withDetail("batchRoundTripMs", roundTrip.millis());
+            return;
+        }
+        timings.report(builder, operationTimer, roundTrip.nanos(), timeBefore.get(), timeAfter.get());
+        log.info("Batch probe time ms:" + roundTrip.millis());
+
+        boolean verified = "OK".equals(written.get()) && Arrays.equals(value, read.get()) && deleted.get() == 1;
+        builder.withDetail("batchVerified", verified).withDetail("batchKey", new String(key, StandardCharsets.UTF_8));
+        if (verified) {
+            builder.up();
+        } else {
+            log.severe("Batch probe could not write, read back and delete " + new String(key, StandardCharsets.UTF_8));
+            builder.down();
+        }
+    }
+
+    private StatefulRedisConnection<byte[], byte[]> batchConnection() {
+        if (batchConnection == null || !batchConnection.isOpen()) {
+            if (!(connectionFactory instanceof LettuceConnectionFactory lettuce && lettuce.getRequiredNativeClient() instanceof RedisClient redisClient)) {
+                throw new IllegalStateException("Batched probe needs a standalone or sentinel Lettuce client");
+            }
+            batchConnection = redisClient.connect(ByteArrayCodec.INSTANCE);
+            batchConnection.setAutoFlushCommands(false);
+        }
+        return batchConnection;
+    }
+
+    // Drop the connection so a half-read pipeline cannot leak replies into the next probe
+    private void resetBatchConnection() {
+        batchConnection.close();
+        batchConnection = null;
+    }
+
+    private Timed<Cache.ValueWrapper> writeCacheKey(CacheKeyStrategy keys, String key) throws Exception {
+        Timed<Cache.ValueWrapper> putTime = operationTimer.record("cache.putIfAbsent", () -> cache.putIfAbsent(key, 1));
+        String remove = keys.keyToRemoveAfter(key);
+        if (remove != null) {
+            operationTimer.record("cache.remove", () -> cache.evictIfPresent(remove));
+        }
+        return putTime;
+    }
+
+    /**
+     * Every entry is its own Redis key, so count them with a SCAN over the checker's key prefix (capped at
+     * {@code redis.checker.keys.footprintMaxKeys}) and sum MEMORY USAGE over what was found.
+     */
+    @Scheduled(fixedRateString = "#{@'" + RedisCheckerProperties.BEAN_NAME + "'.keys.footprintIntervalMs}")
+    public void refreshKeyFootprint() {
+        ScanOptions options = ScanOptions.scanOptions().match(CACHE_NAME + "::" + probeKeys.getPrefix() + "*").count(1000).build();
+        try (RedisConnection connection = connectionFactory.getConnection();
+             Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+            long keys = 0;
+            long bytes = 0;
+            while (cursor.hasNext() && keys < footprintMaxKeys) {
+                Object usage = connection.execute("MEMORY", "USAGE".getBytes(StandardCharsets.UTF_8), cursor.next());
+                bytes += usage instanceof Number number ? number.longValue() : 0;
+                keys++;
+            }
+            liveKeys.set(keys);
+            liveBytes.set(bytes);
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Unable to measure cache footprint", e);
+        }
+    }
+
+    @Override
+    public void runOnce() throws Exception {
+        String uuid = UUID.randomUUID().toString();
+        Lock lock = obtainLock("lock:HEALTH_CHECK - " + uuid);
+        Timed<Boolean> locked = operationTimer.record("lock.try", () -> lock.tryLock(timeoutSeconds, TimeUnit.SECONDS));
+        if (locked.result()) {
+            operationTimer.record("lock.release", () -> {
+                lock.unlock();
+                return null;
+            });
+        }
+        writeCacheKey(loadKeys, loadKeys.nextKey());
+    }
 }
@@ -0,0 +1,106 @@
+package io.harness.redis.tester;
+
+import io.harness.redis.tester.RedisOperationTimer.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+
+import static io.harness.redis.tester.RedisTestServceApplication.LEASE_DURATION;
+
+/**
+ * Non-blocking variant of {@link RedisLettuceHealthChecker} on Lettuce's reactive API.  {@code RedisLockRegistry} has
+ * no reactive form, so the lock is the same SET NX PX plus compare-and-delete it performs, under the registry's key
+ * namespace.  Each step has its own timeout ({@code redis.checker.reactive.stepTimeoutMs}).  Like
+ * {@link RedisReactiveHealthChecker} it is only registered in a reactive web application.
+ */
+@Log
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnExpression("'${redis.checker.driver:}' == 'lettuce' and ${redis.checker.reactive.enabled:false}")
+public class RedisLettuceReactiveHealthChecker implements ReactiveHealthIndicator {
+
+    private static final String KEY_PREFIX = "pmsEventsCacheDeleteTestSpringReactive";
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0", Long.class);
+
+    private final ReactiveStringRedisTemplate template;
+    private final RedisOperationTimer operationTimer;
+    private final Duration stepTimeout;
+    private final Duration keyTtl;
+
+    @Autowired
+    public RedisLettuceReactiveHealthChecker(ReactiveRedisConnectionFactory connectionFactory, MeterRegistry meterRegistry, RedisCheckerProperties properties) {
+        this.template = new ReactiveStringRedisTemplate(connectionFactory);
+        String topology = "single";
+        if (connectionFactory instanceof LettuceConnectionFactory lettuce) {
+            topology = lettuce.getSentinelConfiguration() != null ? "sentinel" : lettuce.getClusterConfiguration() != null ? "cluster" : "single";
+        }
+        this.operationTimer = new RedisOperationTimer(meterRegistry, "lettuce", topology);
+        this.stepTimeout = Duration.ofMillis(properties.getReactive().getStepTimeoutMs());
+        this.keyTtl = Duration.ofSeconds(properties.getKeys().getTtlSeconds());
+        log.info("Reactive health check enabled, step timeout ms:" + stepTimeout.toMillis());
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return Mono.defer(this::probe);
+    }
+
+    private Mono<Health> probe() {
+        String lockId = "lock:HEALTH_CHECK - " + UUID.randomUUID();
+        String lockKey = RedisLettuceHealthChecker.CACHE_NAME + ":" + lockId;
+        String token = UUID.randomUUID().toString();
+        // Checks can run concurrently, so each writes and then removes its own key rather than sharing a ring
+        String key = KEY_PREFIX + UUID.randomUUID();
+        Health.Builder builder = new Health.Builder().withDetail("lockId", lockId);
+        long start = System.nanoTime();
+
+        return step("reactive.lock.try", template.opsForValue().setIfAbsent(lockKey, token, Duration.ofSeconds(LEASE_DURATION)))
+                .flatMap(locked -> {
+                    builder.withDetail("lockTimeMs", locked.millis());
+                    if (!Boolean.TRUE.equals(locked.result())) {
+                        builder.withDetail("tryLockFialure", false);
+                        return Mono.just(locked);
+                    }
+                    return step("reactive.lock.release", template.execute(UNLOCK_SCRIPT, List.of(lockKey), List.of(token)).next())
+                            .doOnNext(unlocked -> builder.withDetail("unlockTimeMs", unlocked.millis()))
+                            .thenReturn(locked);
+                })
+                .flatMap(locked -> step("reactive.cache.putIfAbsent", template.opsForValue().setIfAbsent(cacheKey(key), "1", keyTtl))
+                        .flatMap(put -> {
+                            builder.withDetail("putIfAbsent", put.millis());
+                            Mono<?> evict = step("reactive.cache.remove", template.delete(cacheKey(key)));
+                            return evict.thenReturn(Boolean.TRUE.equals(locked.result()));
+                        }))
+                .map(lockAcquired -> lockAcquired ? builder.up() : builder.down())
+                .onErrorResume(e -> {
+                    log.log(Level.SEVERE, "Reactive Redis probe failed", e);
+                    return Mono.just(builder.down(e));
+                })
+                .map(result -> result.withDetail("probeDurationMs", RollingLatencyStats.toMillis(System.nanoTime() - start)).build());
+    }
+
+    // Matches the key layout RedisCacheManager uses for the blocking checker's cache
+    private static String cacheKey(String key) {
+        return RedisLettuceHealthChecker.CACHE_NAME + "::" + key;
+    }
+
+    private <T> Mono<Timed<T>> step(String operation, Mono<T> call) {
+        return operationTimer.recordReactive(operation, call.timeout(stepTimeout));
+    }
+}
@@ -0,0 +1,230 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Drives the checker's lock and cache operations from N concurrent workers so the sentinel throughput collapse can
+ * be reproduced outside production.  Workers are virtual threads when the JVM supports them (21+), platform threads
+ * otherwise.  The aggregate rate ramps linearly up to {@code redis.checker.load.targetOpsPerSecond}; 0 means
+ * unthrottled.  Under {@code redis.checker.startup.lazy} the workers wait for the checker to warm up, and the ramp
+ * starts from there.  Per-operation latency histograms come from the workload's {@link RedisOperationTimer}.
+ */
+@Log
+@Component
+@Endpoint(id = "redisload")
+@ConditionalOnProperty(value = "redis.checker.load.enabled", havingValue = "true")
+public class RedisLoadGenerator implements SmartLifecycle {
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long WARM_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final RedisWorkload workload;
+    private final int workers;
+    private final double targetOpsPerSecond;
+    private final long rampNanos;
+    private final Counter successes;
+    private final Counter errors;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<Double> achievedOpsPerSecond = new AtomicReference<>(0.0);
+    private final AtomicLong lastPermitNanos = new AtomicLong();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean rampStarted;
+    private volatile long startedAtNanos;
+    private long lastSampleNanos;
+    private long lastSampleCount;
+
+    @Autowired
+    public RedisLoadGenerator(RedisWorkload workload, MeterRegistry meterRegistry,
+                              @Value("${redis.checker.load.workers:64}") int workers,
+                              @Value("${redis.checker.load.targetOpsPerSecond:0}") double targetOpsPerSecond,
+                              @Value("${redis.checker.load.rampSeconds:30}") int rampSeconds) {
+        this.workload = workload;
+        this.workers = workers;
+        this.targetOpsPerSecond = targetOpsPerSecond;
+        this.rampNanos = TimeUnit.SECONDS.toNanos(rampSeconds);
+        String driver = workload.getOperationTimer().getDriver();
+        this.successes = Counter.builder("redis.checker.load.iterations").tag("driver", driver).tag("outcome", "success").register(meterRegistry);
+        this.errors = Counter.builder("redis.checker.load.iterations").tag("driver", driver).tag("outcome", "error").register(meterRegistry);
+        meterRegistry.gauge("redis.checker.load.achievedOpsPerSecond", achievedOpsPerSecond, AtomicReference::get);
+        meterRegistry.gauge("redis.checker.load.targetOpsPerSecond", this, RedisLoadGenerator::currentTargetOpsPerSecond);
+    }
+
+    @Override
+    public synchronized void start() {
+        log.info("Starting Redis load with " + workers + " workers, target ops/sec " + targetOpsPerSecond);
+        running = true;
+        rampStarted = false;
+        lastSampleNanos = System.nanoTime();
+        ThreadFactory threadFactory = workerThreadFactory();
+        for (int i = 0; i < workers; i++) {
+            Thread thread = threadFactory.newThread(this::workerLoop);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void workerLoop() {
+        if (!awaitWarm()) {
+            return;
+        }
+        while (running) {
+            if (!awaitPermit()) {
+                return;
+            }
+            try {
+                workload.getOperationTimer().record("load.iteration", () -> {
+                    workload.runOnce();
+                    return null;
+                });
+                successes.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                errors.increment();
+                failed.incrementAndGet();
+                log.log(Level.FINE, "Load iteration failed", e);
+            }
+            completed.incrementAndGet();
+        }
+    }
+
+    private boolean awaitWarm() {
+        while (running && !workload.isWarm()) {
+            LockSupport.parkNanos(WARM_POLL_NANOS);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        startRamp();
+        return running;
+    }
+
+    // The first worker to see the checker warm starts the ramp clock for all of them
+    private synchronized void startRamp() {
+        if (!rampStarted) {
+            startedAtNanos = System.nanoTime();
+            lastPermitNanos.set(startedAtNanos);
+            rampStarted = true;
+        }
+    }
+
+    // One limiter shared by all workers, spacing iterations 1/rate apart.  Waiting workers park in short slices and
+    // re-read the ramped rate after each, so a slow start does not hold them past the ramp.  A limiter that fell
+    // behind restarts its schedule instead of bursting to catch up.
+    private boolean awaitPermit() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            double rate = currentTargetOpsPerSecond();
+            if (rate <= 0) {
+                return true;
+            }
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            long now = System.nanoTime();
+            long last = lastPermitNanos.get();
+            long due = last + interval;
+            if (due > now) {
+                LockSupport.parkNanos(Math.min(due - now, MAX_PARK_NANOS));
+            } else if (lastPermitNanos.compareAndSet(last, Math.max(due, now - interval))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double currentTargetOpsPerSecond() {
+        if (!running || targetOpsPerSecond <= 0) {
+            return targetOpsPerSecond;
+        }
+        if (!rampStarted) {
+            return 0.0;
+        }
+        long elapsed = System.nanoTime() - startedAtNanos;
+        if (rampNanos <= 0 || elapsed >= rampNanos) {
+            return targetOpsPerSecond;
+        }
+        // Never fully zero, otherwise the limiter's interval would be infinite
+        return Math.max(1.0, targetOpsPerSecond * elapsed / rampNanos);
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public synchronized void sampleThroughput() {
+        long now = System.nanoTime();
+        long count = completed.get();
+        if (now > lastSampleNanos) {
+            achievedOpsPerSecond.set((count - lastSampleCount) * (double) TimeUnit.SECONDS.toNanos(1) / (now - lastSampleNanos));
+        }
+        lastSampleNanos = now;
+        lastSampleCount = count;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        long total = completed.get();
+        status.put("running", running);
+        status.put("driver", workload.getOperationTimer().getDriver());
+        status.put("topology", workload.getOperationTimer().getTopology());
+        status.put("workers", workers);
+        status.put("targetOpsPerSecond", targetOpsPerSecond);
+        status.put("currentTargetOpsPerSecond", currentTargetOpsPerSecond());
+        status.put("achievedOpsPerSecond", achievedOpsPerSecond.get());
+        status.put("iterations", total);
+        status.put("errors", failed.get());
+        status.put("errorRate", total == 0 ? 0.0 : (double) failed.get() / total);
+        return status;
+    }
+
+    // Virtual threads are only available from Java 21; the toolchain is 17 so look them up reflectively.
+    private static ThreadFactory workerThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "redis-load-", 0L);
+            log.info("Using virtual threads for load workers");
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads unavailable, using platform threads for load workers");
+            AtomicLong counter = new AtomicLong();
+            return runnable -> {
+                Thread thread = new Thread(runnable, "redis-load-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
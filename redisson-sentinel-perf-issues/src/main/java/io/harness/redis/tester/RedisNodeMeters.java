@@ -0,0 +1,85 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-node meters for the Redis topology: ping latency histogram, availability and replica replication lag, all
+ * tagged with the node address and role.  Nodes appear as the topology is discovered; a node that disappears or
+ * changes role, as the old master does after a failover, has its meters removed so it stops reporting stale values.
+ */
+public class RedisNodeMeters {
+
+    private final MeterRegistry meterRegistry;
+    private final String driver;
+    private final Map<NodeId, AtomicLong> availability = new ConcurrentHashMap<>();
+    private final Map<NodeId, AtomicLong> replicationLag = new ConcurrentHashMap<>();
+    private final Map<NodeId, Set<Meter>> registered = new ConcurrentHashMap<>();
+    // Nodes that left in the last round; pings still in flight for them must not register their meters again
+    private volatile Set<NodeId> departed = Set.of();
+
+    public RedisNodeMeters(MeterRegistry meterRegistry, String driver) {
+        this.meterRegistry = meterRegistry;
+        this.driver = driver;
+    }
+
+    /**
+     * Starts a probe round over the given nodes, removing the meters of every node not in it.
+     */
+    public void beginRound(Set<NodeId> nodes) {
+        Set<NodeId> gone = new HashSet<>(registered.keySet());
+        gone.removeAll(nodes);
+        departed = gone;
+        for (NodeId node : gone) {
+            registered.remove(node).forEach(meterRegistry::remove);
+            availability.remove(node);
+            replicationLag.remove(node);
+        }
+    }
+
+    public void recordPing(NodeId node, long nanos, boolean success) {
+        if (departed.contains(node)) {
+            return;
+        }
+        register(node, RedisOperationTimer.latencyTimer("redis.checker.node.ping")
+                .description("Ping latency of each node in the Redis topology")
+                .tags(tags(node).and("outcome", success ? "success" : "error"))
+                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        availability.computeIfAbsent(node, key -> gauge("redis.checker.node.up", node)).set(success ? 1 : 0);
+    }
+
+    public void recordReplicationLag(NodeId replica, long lagBytes) {
+        if (departed.contains(replica)) {
+            return;
+        }
+        replicationLag.computeIfAbsent(replica, key -> gauge("redis.checker.node.replication.lag.bytes", replica)).set(lagBytes);
+    }
+
+    private AtomicLong gauge(String name, NodeId node) {
+        AtomicLong value = new AtomicLong();
+        register(node, Gauge.builder(name, value, AtomicLong::get).tags(tags(node)).register(meterRegistry));
+        return value;
+    }
+
+    private <M extends Meter> M register(NodeId node, M meter) {
+        registered.computeIfAbsent(node, key -> ConcurrentHashMap.newKeySet()).add(meter);
+        return meter;
+    }
+
+    private Tags tags(NodeId node) {
+        return Tags.of("driver", driver, "address", node.address(), "role", node.role());
+    }
+
+    public record NodeId(String role, String address) {
+    }
+}
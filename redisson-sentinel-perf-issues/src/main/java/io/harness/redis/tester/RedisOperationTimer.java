@@ -0,0 +1,110 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Times individual Redis operations at nanosecond precision with a {@link Timer.Sample}.  Every timer is tagged with
+ * the driver, topology, operation and outcome, and publishes a percentile histogram plus SLO buckets so p99/p999
+ * regressions are visible in Prometheus.
+ */
+public class RedisOperationTimer {
+
+    public static final String METRIC_NAME = "redis.checker.operation";
+
+    private static final Duration[] SLO_BUCKETS = {
+            Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5)
+    };
+
+    private final MeterRegistry meterRegistry;
+    private final String driver;
+    private final String topology;
+
+    public RedisOperationTimer(MeterRegistry meterRegistry, String driver, String topology) {
+        this.meterRegistry = meterRegistry;
+        this.driver = driver;
+        this.topology = topology;
+    }
+
+    /**
+     * Runs and times the operation.  A {@code false} result is recorded as "rejected" (e.g. a tryLock that did not
+     * acquire), a {@link TimeoutException} as "timeout" and any other exception as "error".
+     */
+    public <T> Timed<T> record(String operation, Callable<T> call) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result;
+        try {
+            result = call.call();
+        } catch (TimeoutException e) {
+            sample.stop(timer(operation, "timeout"));
+            throw e;
+        } catch (Exception e) {
+            sample.stop(timer(operation, "error"));
+            throw e;
+        }
+        long nanos = sample.stop(timer(operation, Boolean.FALSE.equals(result) ? "rejected" : "success"));
+        return new Timed<>(result, nanos);
+    }
+
+    /**
+     * Reactive counterpart of {@link #record}: the sample starts on subscription and stops when the {@link Mono}
+     * completes, so an empty completion (e.g. {@code Mono<Void>} from an unlock) is timed as a success.
+     */
+    public <T> Mono<Timed<T>> recordReactive(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .map(result -> {
+                        T value = result.orElse(null);
+                        long nanos = sample.stop(timer(operation, Boolean.FALSE.equals(value) ? "rejected" : "success"));
+                        return new Timed<>(value, nanos);
+                    })
+                    .doOnError(e -> sample.stop(timer(operation, e instanceof TimeoutException ? "timeout" : "error")));
+        });
+    }
+
+    public Timer timer(String operation, String outcome) {
+        return latencyTimer(METRIC_NAME)
+                .description("Latency of individual Redis operations issued by the checker")
+                .tag("driver", driver)
+                .tag("topology", topology)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A timer builder with the checker's standard percentiles, histogram and SLO buckets.
+     */
+    static Timer.Builder latencyTimer(String name) {
+        return Timer.builder(name)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(SLO_BUCKETS)
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(30));
+    }
+
+    public String getDriver() {
+        return driver;
+    }
+
+    public String getTopology() {
+        return topology;
+    }
+
+    public record Timed<T>(T result, long nanos) {
+        public double millis() {
+            return RollingLatencyStats.toMillis(nanos);
+        }
+    }
+}
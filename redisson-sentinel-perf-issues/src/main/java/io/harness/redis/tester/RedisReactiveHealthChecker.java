@@ -0,0 +1,115 @@
+package io.harness.redis.tester;
+
+import io.harness.redis.tester.RedisOperationTimer.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.java.Log;
+import org.redisson.api.RLockReactive;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static io.harness.redis.tester.RedisTestServceApplication.LEASE_DURATION;
+
+/**
+ * Non-blocking variant of {@link RedisHealthChecker} on {@link RedissonReactiveClient}: lock, unlock, tryLock, unlock
+ * and the cache write are composed into one pipeline and no thread waits on Redis.  Every step has its own timeout,
+ * so a stalled master fails the check after {@code redis.checker.reactive.stepTimeoutMs} instead of after the full
+ * Redisson retry window.  The cache step writes a plain bucket with a TTL, as the JCache API has no reactive form.
+ *
+ * Unlike the blocking checkers this runs against Redis on every health request instead of serving a cached probe.
+ * Under a servlet stack actuator adapts reactive indicators by blocking on them, which frees no threads, so the
+ * indicator is only registered in a reactive (WebFlux) web application; this Tomcat app never enables it.
+ */
+@Log
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnExpression("'${redis.checker.driver:}' == 'redisson' and ${redis.checker.reactive.enabled:false}")
+public class RedisReactiveHealthChecker implements ReactiveHealthIndicator {
+
+    private static final String KEY_PREFIX = "pmsEventsCacheDeleteAfterReactive";
+
+    private final RedissonReactiveClient client;
+    private final RedisOperationTimer operationTimer;
+    private final int timeoutSeconds;
+    private final Duration stepTimeout;
+    private final Duration keyTtl;
+
+    @Autowired
+    public RedisReactiveHealthChecker(RedissonClient client, MeterRegistry meterRegistry, RedisCheckerProperties properties,
+                                      @Value("${redis.checker.timeoutSeconds:0}") int timeoutSeconds) {
+        this.client = client.reactive();
+        this.operationTimer = new RedisOperationTimer(meterRegistry, "redisson", client.getConfig().isSentinelConfig() ? "sentinel"
+                : client.getConfig().isClusterConfig() ? "cluster" : "single");
+        this.timeoutSeconds = timeoutSeconds;
+        this.stepTimeout = Duration.ofMillis(properties.getReactive().getStepTimeoutMs());
+        this.keyTtl = Duration.ofSeconds(properties.getKeys().getTtlSeconds());
+        log.info("Reactive health check enabled, step timeout ms:" + stepTimeout.toMillis());
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return Mono.defer(this::probe);
+    }
+
+    private Mono<Health> probe() {
+        String lockId = "lock:HEALTH_CHECK - " + UUID.randomUUID();
+        // Reactive locks are owned by an id rather than the subscribing thread, which can change between steps
+        long ownerId = ThreadLocalRandom.current().nextLong();
+        RLockReactive lock = client.getLock(lockId);
+        // Checks can run concurrently, so each writes and then removes its own key rather than sharing a ring
+        String key = KEY_PREFIX + UUID.randomUUID();
+        Health.Builder builder = new Health.Builder().withDetail("lockId", lockId);
+        long start = System.nanoTime();
+
+        return step("reactive.lock.acquire", lock.lock(LEASE_DURATION, TimeUnit.SECONDS, ownerId))
+                .doOnNext(timed -> builder.withDetail("lockTimeMs", timed.millis()))
+                .then(step("reactive.lock.release", lock.unlock(ownerId)))
+                .doOnNext(timed -> builder.withDetail("unlockTimeMs", timed.millis()))
+                .then(step("reactive.lock.try", lock.tryLock(timeoutSeconds, LEASE_DURATION, TimeUnit.SECONDS, ownerId)))
+                .flatMap(locked -> {
+                    builder.withDetail("asyncLockStatus", locked.result());
+                    Mono<Timed<Void>> release = Boolean.TRUE.equals(locked.result())
+                            ? step("reactive.lock.release", lock.unlock(ownerId))
+                            : Mono.just(new Timed<>(null, 0L));
+                    return release.doOnNext(unlocked -> builder.withDetail("asyncLockDurationMs", locked.millis() + unlocked.millis()));
+                })
+                .then(step("reactive.cache.putIfAbsent", client.getBucket(key, StringCodec.INSTANCE).setIfAbsent("1", keyTtl)))
+                .flatMap(put -> {
+                    builder.withDetail("putIfAbsentMs", put.millis());
+                    Mono<?> evict = step("reactive.cache.remove", client.getBucket(key, StringCodec.INSTANCE).delete());
+                    return evict.then(Mono.just(put));
+                })
+                .map(put -> {
+                    if (Boolean.TRUE.equals(put.result())) {
+                        builder.up();
+                    } else {
+                        log.severe("Unable to write key " + key);
+                        builder.down().withDetail(key, false);
+                    }
+                    return builder;
+                })
+                .onErrorResume(e -> {
+                    log.log(Level.SEVERE, "Reactive Redis probe failed", e);
+                    return Mono.just(builder.down(e));
+                })
+                .map(result -> result.withDetail("probeDurationMs", RollingLatencyStats.toMillis(System.nanoTime() - start)).build());
+    }
+
+    private <T> Mono<Timed<T>> step(String operation, Mono<T> call) {
+        return operationTimer.recordReactive(operation, call.timeout(stepTimeout));
+    }
+}
@@ -0,0 +1,80 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * With {@code redis.checker.startup.lazy=true} the application context comes up without touching Redis and this
+ * warms the checker up on a background thread, retrying until Redis answers.  Health stays DOWN until it completes.
+ * Besides the per-phase timers, {@code redis.checker.startup.phase{phase=jvm.toWarm}} records the time from JVM start
+ * until the checker was warm.
+ */
+@Log
+@Component
+@ConditionalOnProperty(value = "redis.checker.startup.lazy", havingValue = "true")
+public class RedisStartupWarmup implements SmartLifecycle {
+
+    private final RedisWorkload workload;
+    private final StartupPhaseTimer phases;
+    private final long retryIntervalMs;
+    private volatile Thread warmer;
+
+    @Autowired
+    public RedisStartupWarmup(RedisWorkload workload, MeterRegistry meterRegistry, RedisCheckerProperties properties) {
+        this.workload = workload;
+        this.phases = new StartupPhaseTimer(meterRegistry);
+        this.retryIntervalMs = properties.getStartup().getRetryIntervalMs();
+    }
+
+    @Override
+    public synchronized void start() {
+        warmer = new Thread(this::warmUp, "redis-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    private void warmUp() {
+        long attempts = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            attempts++;
+            try {
+                phases.time("warmup", () -> {
+                    workload.warmUp(phases);
+                    return null;
+                });
+                long sinceJvmStartMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                phases.record("jvm.toWarm", TimeUnit.MILLISECONDS.toNanos(sinceJvmStartMs));
+                log.info("Redis warm-up finished after " + attempts + " attempt(s): " + phases.durationsMs());
+                return;
+            } catch (Exception e) {
+                log.log(Level.WARNING, "Redis warm-up attempt " + attempts + " failed, retrying in " + retryIntervalMs + "ms", e);
+                try {
+                    Thread.sleep(retryIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (warmer != null) {
+            warmer.interrupt();
+            warmer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return warmer != null;
+    }
+}
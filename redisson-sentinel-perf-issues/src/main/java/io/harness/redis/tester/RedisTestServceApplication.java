@@ -2,10 +2,14 @@ package io.harness.redis.tester;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableRedisRepositories
+@EnableScheduling
+@EnableConfigurationProperties(RedisCheckerProperties.class)
 
 public class RedisTestServceApplication {
 	public static final int LEASE_DURATION = 1;
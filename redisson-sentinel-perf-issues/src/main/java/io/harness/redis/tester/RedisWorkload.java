@@ -0,0 +1,26 @@
+package io.harness.redis.tester;
+
+/**
+ * One iteration of the lock and cache operations a checker exercises, so load and benchmark drivers issue exactly
+ * the same Redis traffic as the health probe.
+ */
+public interface RedisWorkload extends AutoCloseable {
+
+    RedisOperationTimer getOperationTimer();
+
+    void runOnce() throws Exception;
+
+    /**
+     * Opens connections and creates whatever the constructor deferred under {@code redis.checker.startup.lazy},
+     * timing each phase.  Safe to call more than once.
+     */
+    void warmUp(StartupPhaseTimer phases) throws Exception;
+
+    /**
+     * False while {@link #warmUp} is still owed, i.e. under {@code redis.checker.startup.lazy} until it has completed.
+     */
+    boolean isWarm();
+
+    @Override
+    void close();
+}
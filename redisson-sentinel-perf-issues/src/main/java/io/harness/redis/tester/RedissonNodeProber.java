@@ -0,0 +1,94 @@
+package io.harness.redis.tester;
+
+import io.harness.redis.tester.RedisNodeMeters.NodeId;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.java.Log;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.redisnode.RedisMaster;
+import org.redisson.api.redisnode.RedisNode;
+import org.redisson.api.redisnode.RedisNodeAsync;
+import org.redisson.api.redisnode.RedisNodes;
+import org.redisson.api.redisnode.RedisSentinelMasterSlave;
+import org.redisson.api.redisnode.RedisSlave;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Pings every master, replica and sentinel Redisson knows about, concurrently and on its own schedule, so a latency
+ * spike can be pinned to a node.  Runs independently of the health probe and never delays its result.
+ */
+@Log
+@Component
+@ConditionalOnProperty(value = "redis.checker.driver", havingValue = "redisson")
+public class RedissonNodeProber {
+
+    private final RedissonClient client;
+    private final RedisNodeMeters meters;
+    private final long pingTimeoutMs;
+
+    @Autowired
+    public RedissonNodeProber(RedissonClient client, MeterRegistry meterRegistry, @Value("${redis.checker.nodes.pingTimeoutMs:2000}") long pingTimeoutMs) {
+        this.client = client;
+        this.meters = new RedisNodeMeters(meterRegistry, "redisson");
+        this.pingTimeoutMs = pingTimeoutMs;
+    }
+
+    @Scheduled(fixedRateString = "${redis.checker.nodes.intervalMs:10000}")
+    public void probeNodes() {
+        try {
+            Map<NodeId, RedisNode> nodes = new LinkedHashMap<>();
+            RedisMaster master;
+            Map<NodeId, RedisSlave> replicas = new LinkedHashMap<>();
+            if (client.getConfig().isSentinelConfig()) {
+                RedisSentinelMasterSlave topology = client.getRedisNodes(RedisNodes.SENTINEL_MASTER_SLAVE);
+                master = topology.getMaster();
+                topology.getSlaves().forEach(replica -> replicas.put(new NodeId("replica", address(replica)), replica));
+                topology.getSentinels().forEach(sentinel -> nodes.put(new NodeId("sentinel", address(sentinel)), sentinel));
+            } else if (client.getConfig().isClusterConfig()) {
+                log.fine("Per-node probing is not implemented for cluster mode");
+                return;
+            } else {
+                master = client.getRedisNodes(RedisNodes.SINGLE).getInstance();
+            }
+            nodes.put(new NodeId("master", address(master)), master);
+            nodes.putAll(replicas);
+
+            meters.beginRound(nodes.keySet());
+            nodes.forEach(this::ping);
+            recordReplicationLag(master, replicas);
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Unable to enumerate the Redis topology", e);
+        }
+    }
+
+    private void ping(NodeId node, RedisNode redisNode) {
+        long start = System.nanoTime();
+        RFuture<Boolean> ping = ((RedisNodeAsync) redisNode).pingAsync(pingTimeoutMs, TimeUnit.MILLISECONDS);
+        ping.whenComplete((pong, e) -> meters.recordPing(node, System.nanoTime() - start, e == null && Boolean.TRUE.equals(pong)));
+    }
+
+    // Lag in bytes is the master's replication offset minus how far each replica has applied
+    private void recordReplicationLag(RedisMaster master, Map<NodeId, RedisSlave> replicas) {
+        RFuture<Map<String, String>> masterInfo = master.infoAsync(RedisNode.InfoSection.REPLICATION);
+        replicas.forEach((node, replica) -> masterInfo.thenAcceptBoth(replica.infoAsync(RedisNode.InfoSection.REPLICATION), (fromMaster, fromReplica) -> {
+            String masterOffset = fromMaster.get("master_repl_offset");
+            String replicaOffset = fromReplica.get("slave_repl_offset");
+            if (masterOffset != null && replicaOffset != null) {
+                meters.recordReplicationLag(node, Math.max(0, Long.parseLong(masterOffset) - Long.parseLong(replicaOffset)));
+            }
+        }));
+    }
+
+    private static String address(RedisNode node) {
+        return node.getAddr().getHostString() + ":" + node.getAddr().getPort();
+    }
+}
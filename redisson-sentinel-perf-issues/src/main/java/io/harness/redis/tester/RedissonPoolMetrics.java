@@ -0,0 +1,178 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.java.Log;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnection;
+import org.redisson.client.RedisPubSubConnection;
+import org.redisson.client.protocol.RedisCommands;
+import org.redisson.config.BaseMasterSlaveServersConfig;
+import org.redisson.config.Config;
+import org.redisson.config.SingleServerConfig;
+import org.redisson.connection.ClientConnectionsEntry;
+import org.redisson.connection.ConnectionManager;
+import org.redisson.connection.ConnectionsHolder;
+import org.redisson.connection.MasterSlaveEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Connection pool, pub/sub slot and event-loop saturation gauges for the Redisson client, per pool and per node, so
+ * {@code masterConnectionPoolSize}, {@code subscriptionConnectionPoolSize}, {@code subscriptionsPerConnection},
+ * {@code threads} and {@code nettyThreads} can be sized from data.  Redisson has no public pool API, so this reads
+ * its connection internals and may need adjusting on a Redisson upgrade.
+ * <p>
+ * Acquire wait is sampled directly: every refresh borrows one connection from each master pool through the same path
+ * commands use and times how long it takes to be handed out.
+ */
+@Log
+@Component
+@ConditionalOnProperty(value = "redis.checker.driver", havingValue = "redisson")
+public class RedissonPoolMetrics {
+
+    private final RedissonClient client;
+    private final MultiGauge connections;
+    private final MultiGauge pending;
+    private final MultiGauge subscriptionsUsed;
+    private final MultiGauge subscriptionsCapacity;
+    private final MultiGauge eventLoopPending;
+    private final MultiGauge executorQueue;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RedissonPoolMetrics(RedissonClient client, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+        this.connections = MultiGauge.builder("redis.checker.pool.connections")
+                .description("Redisson connections per node and pool, by state (active, idle)")
+                .register(meterRegistry);
+        this.pending = MultiGauge.builder("redis.checker.pool.pending")
+                .description("Callers queued waiting for a Redisson connection per node and pool")
+                .register(meterRegistry);
+        this.subscriptionsUsed = MultiGauge.builder("redis.checker.pool.subscriptions.used")
+                .description("Channels subscribed across the pub/sub connections of a node, lock waits use one each")
+                .register(meterRegistry);
+        this.subscriptionsCapacity = MultiGauge.builder("redis.checker.pool.subscriptions.capacity")
+                .description("subscriptionConnectionPoolSize * subscriptionsPerConnection per node")
+                .register(meterRegistry);
+        this.eventLoopPending = MultiGauge.builder("redis.checker.eventloop.pending.tasks")
+                .description("Tasks queued on each Redisson Netty event loop")
+                .register(meterRegistry);
+        this.executorQueue = MultiGauge.builder("redis.checker.executor.queue")
+                .description("Tasks queued on the Redisson listener executor (threads)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRateString = "${redis.checker.pool.intervalMs:5000}")
+    public void refresh() {
+        if (!(client instanceof Redisson redisson)) {
+            return;
+        }
+        try {
+            ConnectionManager connectionManager = redisson.getConnectionManager();
+            int slotCapacity = subscriptionSlotCapacity(client.getConfig());
+            List<MultiGauge.Row<?>> connectionRows = new ArrayList<>();
+            List<MultiGauge.Row<?>> pendingRows = new ArrayList<>();
+            List<MultiGauge.Row<?>> usedRows = new ArrayList<>();
+            List<MultiGauge.Row<?>> capacityRows = new ArrayList<>();
+            for (MasterSlaveEntry entry : connectionManager.getEntrySet()) {
+                List<ClientConnectionsEntry> nodes = new ArrayList<>(entry.getAllEntries());
+                ClientConnectionsEntry master = entry.getEntry(entry.getClient());
+                if (master != null && !nodes.contains(master)) {
+                    nodes.add(master);
+                }
+                for (ClientConnectionsEntry node : nodes) {
+                    Tags nodeTags = Tags.of("driver", "redisson",
+                            "address", node.getClient().getAddr().getHostString() + ":" + node.getClient().getAddr().getPort(),
+                            "role", node == master ? "master" : "replica");
+                    addPoolRows(connectionRows, pendingRows, nodeTags.and("pool", "command"), node.getConnectionsHolder());
+                    addPoolRows(connectionRows, pendingRows, nodeTags.and("pool", "pubsub"), node.getPubSubConnectionsHolder());
+                    usedRows.add(MultiGauge.Row.of(nodeTags, subscribedChannels(node.getPubSubConnectionsHolder())));
+                    capacityRows.add(MultiGauge.Row.of(nodeTags, slotCapacity));
+                }
+                sampleAcquireWait(entry);
+            }
+            connections.register(connectionRows, true);
+            pending.register(pendingRows, true);
+            subscriptionsUsed.register(usedRows, true);
+            subscriptionsCapacity.register(capacityRows, true);
+            refreshExecutors(connectionManager);
+        } catch (Exception e) {
+            log.log(Level.WARNING, "Unable to read Redisson pool state", e);
+        }
+    }
+
+    private static void addPoolRows(List<MultiGauge.Row<?>> connectionRows, List<MultiGauge.Row<?>> pendingRows, Tags tags,
+                                    ConnectionsHolder<? extends RedisConnection> holder) {
+        int all = holder.getAllConnections().size();
+        int idle = holder.getFreeConnections().size();
+        connectionRows.add(MultiGauge.Row.of(tags.and("state", "active"), all - idle));
+        connectionRows.add(MultiGauge.Row.of(tags.and("state", "idle"), idle));
+        pendingRows.add(MultiGauge.Row.of(tags, holder.getFreeConnectionsCounter().queueSize()));
+    }
+
+    private static int subscribedChannels(ConnectionsHolder<RedisPubSubConnection> holder) {
+        int channels = 0;
+        for (RedisPubSubConnection connection : holder.getAllConnections()) {
+            channels += connection.getChannels().size() + connection.getPatternChannels().size();
+        }
+        return channels;
+    }
+
+    private static int subscriptionSlotCapacity(Config config) {
+        if (config.isSingleConfig()) {
+            SingleServerConfig single = config.useSingleServer();
+            return single.getSubscriptionConnectionPoolSize() * single.getSubscriptionsPerConnection();
+        }
+        BaseMasterSlaveServersConfig<?> servers = config.isSentinelConfig() ? config.useSentinelServers()
+                : config.isClusterConfig() ? config.useClusterServers() : config.useMasterSlaveServers();
+        return servers.getSubscriptionConnectionPoolSize() * servers.getSubscriptionsPerConnection();
+    }
+
+    // Borrows and immediately returns a master connection, timing the hand-out the same way a command would see it
+    private void sampleAcquireWait(MasterSlaveEntry entry) {
+        Timer timer = RedisOperationTimer.latencyTimer("redis.checker.pool.acquire")
+                .description("Time to be handed a connection from the Redisson master pool")
+                .tags("driver", "redisson", "address", entry.getClient().getAddr().getHostString() + ":" + entry.getClient().getAddr().getPort())
+                .register(meterRegistry);
+        long start = System.nanoTime();
+        entry.connectionWriteOp(RedisCommands.PING).whenComplete((connection, e) -> {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (connection != null) {
+                entry.releaseWrite(connection);
+            }
+        });
+    }
+
+    private void refreshExecutors(ConnectionManager connectionManager) {
+        List<MultiGauge.Row<?>> loopRows = new ArrayList<>();
+        int index = 0;
+        for (EventExecutor loop : connectionManager.getServiceManager().getGroup()) {
+            if (loop instanceof SingleThreadEventExecutor eventLoop) {
+                loopRows.add(MultiGauge.Row.of(Tags.of("driver", "redisson", "loop", String.valueOf(index)), eventLoop.pendingTasks()));
+            }
+            index++;
+        }
+        eventLoopPending.register(loopRows, true);
+
+        ExecutorService executor = connectionManager.getServiceManager().getExecutor();
+        if (executor instanceof ThreadPoolExecutor pool) {
+            executorQueue.register(List.of(MultiGauge.Row.of(Tags.of("driver", "redisson"), pool.getQueue().size())), true);
+        }
+    }
+}
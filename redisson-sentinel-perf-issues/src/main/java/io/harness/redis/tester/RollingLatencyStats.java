@@ -0,0 +1,55 @@
+package io.harness.redis.tester;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed size window over the most recent latency samples.  Cheap enough to summarize on every health request.
+ */
+public class RollingLatencyStats {
+
+    private final long[] samples;
+    private int next;
+    private long count;
+
+    public RollingLatencyStats(int windowSize) {
+        this.samples = new long[Math.max(1, windowSize)];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count++;
+    }
+
+    public synchronized Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        int size = (int) Math.min(count, samples.length);
+        if (size == 0) {
+            return summary;
+        }
+        long[] window = Arrays.copyOf(samples, size);
+        Arrays.sort(window);
+        long total = 0;
+        for (long sample : window) {
+            total += sample;
+        }
+        summary.put("minMs", toMillis(window[0]));
+        summary.put("meanMs", toMillis(total / size));
+        summary.put("p50Ms", toMillis(percentile(window, 0.50)));
+        summary.put("p99Ms", toMillis(percentile(window, 0.99)));
+        summary.put("maxMs", toMillis(window[size - 1]));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,48 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each phase of the Redis warm-up as {@code redis.checker.startup.phase{phase=...}} and keeps the durations for
+ * the health details.  Phases may run concurrently.
+ */
+public class StartupPhaseTimer {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Double> durationsMs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public StartupPhaseTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T time(String phase, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String phase, long nanos) {
+        Timer.builder("redis.checker.startup.phase")
+                .description("Duration of each Redis warm-up phase at startup")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        durationsMs.put(phase, RollingLatencyStats.toMillis(nanos));
+    }
+
+    public Map<String, Double> durationsMs() {
+        synchronized (durationsMs) {
+            return new LinkedHashMap<>(durationsMs);
+        }
+    }
+}
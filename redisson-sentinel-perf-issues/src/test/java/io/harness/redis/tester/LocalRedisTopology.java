@@ -0,0 +1,237 @@
+package io.harness.redis.tester;
+
+import lombok.extern.java.Log;
+import org.redisson.config.Config;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches throwaway redis-server processes on loopback ports: either a single master, or a master, one replica and
+ * three sentinels monitoring {@link #MASTER_NAME}.  Requires {@code redis-server} on the PATH (override with the
+ * {@code redis.server.binary} system property).
+ */
+@Log
+public class LocalRedisTopology implements AutoCloseable {
+
+    public static final String MASTER_NAME = "mymaster";
+    public static final int SENTINEL_COUNT = 3;
+
+    private static final String BINARY = System.getProperty("redis.server.binary", "redis-server");
+
+    private final boolean sentinel;
+    private final int basePort;
+    private final Path workDir;
+    private final List<Process> processes = new ArrayList<>();
+    private Process master;
+
+    private LocalRedisTopology(boolean sentinel, int basePort) throws IOException {
+        this.sentinel = sentinel;
+        this.basePort = basePort;
+        this.workDir = Files.createTempDirectory("local-redis-" + basePort);
+    }
+
+    public static boolean isRedisServerAvailable() {
+        try {
+            Process process = new ProcessBuilder(BINARY, "--version").redirectErrorStream(true).start();
+            return process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public static LocalRedisTopology start(String topology, int basePort) throws Exception {
+        return switch (topology) {
+            case "single" -> single(basePort);
+            case "sentinel" -> sentinel(basePort);
+            default -> throw new IllegalArgumentException("Unknown topology " + topology);
+        };
+    }
+
+    /**
+     * Describes an already running topology laid out on the same ports, without launching anything.
+     */
+    public static LocalRedisTopology describe(String topology, int basePort) throws IOException {
+        return new LocalRedisTopology("sentinel".equals(topology), basePort);
+    }
+
+    public static LocalRedisTopology single(int basePort) throws Exception {
+        LocalRedisTopology topology = new LocalRedisTopology(false, basePort);
+        topology.master = topology.launch(basePort, "--port", String.valueOf(basePort));
+        return topology;
+    }
+
+    public static LocalRedisTopology sentinel(int basePort) throws Exception {
+        LocalRedisTopology topology = new LocalRedisTopology(true, basePort);
+        topology.master = topology.launch(basePort, "--port", String.valueOf(basePort));
+        topology.launch(topology.getReplicaPort(), "--port", String.valueOf(topology.getReplicaPort()),
+                "--replicaof", "127.0.0.1", String.valueOf(basePort));
+        for (int port : topology.getSentinelPorts()) {
+            File conf = topology.workDir.resolve("sentinel-" + port + ".conf").toFile();
+            Files.writeString(conf.toPath(), String.join("\n",
+                    "port " + port,
+                    "sentinel monitor " + MASTER_NAME + " 127.0.0.1 " + basePort + " 2",
+                    "sentinel down-after-milliseconds " + MASTER_NAME + " 1000",
+                    "sentinel failover-timeout " + MASTER_NAME + " 5000",
+                    "sentinel parallel-syncs " + MASTER_NAME + " 1",
+                    ""));
+            topology.launch(port, conf.getAbsolutePath(), "--sentinel");
+        }
+        topology.awaitSentinelDiscovery();
+        return topology;
+    }
+
+    // Redisson refuses to start until the sentinels have found each other and the replica through hello messages
+    private void awaitSentinelDiscovery() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (int port : getSentinelPorts()) {
+            while (arrayLength(command(port, "SENTINEL", "SENTINELS", MASTER_NAME)) < SENTINEL_COUNT - 1
+                    || arrayLength(command(port, "SENTINEL", "REPLICAS", MASTER_NAME)) < 1) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Sentinel on port " + port + " did not discover the topology");
+                }
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    private static int arrayLength(String reply) {
+        return reply.startsWith("*") ? Integer.parseInt(reply.substring(1, reply.indexOf('\r'))) : -1;
+    }
+
+    /**
+     * Sends a single command over a raw RESP connection and returns the unparsed reply.  Good enough for the
+     * handful of admin commands (SENTINEL, DEBUG, CLIENT PAUSE) the harnesses need without another client.
+     */
+    public static String command(int port, String... args) throws IOException {
+        StringBuilder request = new StringBuilder("*").append(args.length).append("\r\n");
+        for (String arg : args) {
+            request.append('$').append(arg.getBytes(StandardCharsets.UTF_8).length).append("\r\n").append(arg).append("\r\n");
+        }
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 1000);
+            socket.setSoTimeout(1000);
+            socket.getOutputStream().write(request.toString().getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+            byte[] buffer = new byte[16384];
+            int read = socket.getInputStream().read(buffer);
+            return read <= 0 ? "" : new String(buffer, 0, read, StandardCharsets.UTF_8);
+        }
+    }
+
+    private Process launch(int port, String... args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(BINARY);
+        command.addAll(List.of(args));
+        if (!args[args.length - 1].equals("--sentinel")) {
+            command.addAll(List.of("--save", "", "--appendonly", "no"));
+        }
+        command.addAll(List.of("--dir", workDir.toString()));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("redis-" + port + ".log").toFile())
+                .start();
+        processes.add(process);
+        awaitPort(port, process);
+        log.info("Started " + String.join(" ", command));
+        return process;
+    }
+
+    private static void awaitPort(int port, Process process) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("redis-server on port " + port + " exited with " + process.exitValue());
+            }
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(50);
+            }
+        }
+        throw new IllegalStateException("redis-server did not listen on port " + port);
+    }
+
+    /**
+     * Kills the original master outright, leaving the sentinels to promote the replica.
+     */
+    public void killMaster() {
+        master.destroyForcibly();
+    }
+
+    public boolean isSentinel() {
+        return sentinel;
+    }
+
+    public int getMasterPort() {
+        return basePort;
+    }
+
+    public int getReplicaPort() {
+        return basePort + 1;
+    }
+
+    public List<Integer> getSentinelPorts() {
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < SENTINEL_COUNT; i++) {
+            ports.add(basePort + 10000 + i);
+        }
+        return ports;
+    }
+
+    public Config redissonConfig() {
+        Config config = new Config();
+        if (sentinel) {
+            config.useSentinelServers().setMasterName(MASTER_NAME);
+            getSentinelPorts().forEach(port -> config.useSentinelServers().addSentinelAddress("redis://127.0.0.1:" + port));
+        } else {
+            config.useSingleServer().setAddress("redis://127.0.0.1:" + basePort);
+        }
+        return config;
+    }
+
+    public LettuceConnectionFactory lettuceConnectionFactory() {
+        LettuceConnectionFactory factory;
+        if (sentinel) {
+            Set<String> sentinels = new HashSet<>();
+            getSentinelPorts().forEach(port -> sentinels.add("127.0.0.1:" + port));
+            factory = new LettuceConnectionFactory(new RedisSentinelConfiguration(MASTER_NAME, sentinels));
+        } else {
+            factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", basePort));
+        }
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    @Override
+    public void close() {
+        processes.forEach(Process::destroy);
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+}
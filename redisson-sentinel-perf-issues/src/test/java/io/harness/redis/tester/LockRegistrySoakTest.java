@@ -0,0 +1,63 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.java.Log;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a million Lettuce probes ({@code -Dsoak.probes}) through one checker against a local redis-server and samples
+ * heap use after a GC every 100k probes.  Each probe obtains a fresh lock id, so without the registry bound the heap
+ * grows linearly.  The size checked is that of the registry's own lock map.  Run with
+ * {@code ./gradlew test --tests LockRegistrySoakTest -Dsoak=true}.
+ */
+@Log
+@EnabledIfSystemProperty(named = "soak", matches = "true")
+class LockRegistrySoakTest {
+
+    private static final int BASE_PORT = Integer.getInteger("soak.basePort", 6420);
+    private static final long PROBES = Long.getLong("soak.probes", 1_000_000);
+    private static final long SAMPLE_EVERY = 100_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = Long.getLong("soak.maxHeapGrowthMb", 32) * 1024 * 1024;
+
+    @Test
+    void heapStaysFlat() throws Exception {
+        Assumptions.assumeTrue(LocalRedisTopology.isRedisServerAvailable(), "redis-server is not installed");
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        RedisCheckerProperties properties = new RedisCheckerProperties();
+        List<Long> heapSamples = new ArrayList<>();
+        try (LocalRedisTopology redis = LocalRedisTopology.single(BASE_PORT)) {
+            LettuceConnectionFactory lettuce = redis.lettuceConnectionFactory();
+            RedisLettuceHealthChecker checker = new RedisLettuceHealthChecker(lettuce, new SimpleMeterRegistry(), properties, 1);
+            try {
+                for (long i = 1; i <= PROBES; i++) {
+                    checker.runOnce();
+                    if (i % SAMPLE_EVERY == 0) {
+                        System.gc();
+                        long used = memory.getHeapMemoryUsage().getUsed();
+                        heapSamples.add(used);
+                        log.info("After " + i + " probes: heap used " + used / 1024 + "KB, registry size " + checker.lockRegistrySize());
+                        int size = checker.lockRegistrySize();
+                        assertTrue(size > 0, "Registry map is empty, it is not the one obtain() fills");
+                        assertTrue(size <= properties.getLock().getCacheCapacity(), "Registry grew past its capacity: " + size);
+                    }
+                }
+            } finally {
+                checker.close();
+                lettuce.destroy();
+            }
+        }
+        // The first sample absorbs class loading and connection setup, growth is measured from there
+        long growth = heapSamples.get(heapSamples.size() - 1) - heapSamples.get(0);
+        assertTrue(growth < MAX_HEAP_GROWTH_BYTES, "Heap grew by " + growth / 1024 + "KB over the soak: " + heapSamples);
+    }
+}
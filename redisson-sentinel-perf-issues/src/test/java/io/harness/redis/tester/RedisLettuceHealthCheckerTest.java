@@ -0,0 +1,44 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the sequential Lettuce probe against a lock that cannot be taken; no Redis is needed because the probe stops
+ * before touching the cache.
+ */
+class RedisLettuceHealthCheckerTest {
+
+    @Test
+    void failedTryLockLeavesTheSnapshotDown() throws Exception {
+        Lock unavailable = mock(Lock.class);
+        when(unavailable.tryLock(anyLong(), any(TimeUnit.class))).thenReturn(false);
+        RedisLettuceHealthChecker checker = new RedisLettuceHealthChecker(mock(RedisConnectionFactory.class), new SimpleMeterRegistry(),
+                new RedisCheckerProperties(), 1) {
+            @Override
+            Lock obtainLock(String lockId) {
+                return unavailable;
+            }
+        };
+        try {
+            checker.runProbe();
+            Health health = checker.health();
+            assertEquals(Status.DOWN, health.getStatus());
+            assertEquals(false, health.getDetails().get("tryLockFialure"));
+        } finally {
+            checker.close();
+        }
+    }
+}
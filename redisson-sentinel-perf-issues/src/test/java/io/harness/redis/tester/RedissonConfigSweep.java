@@ -0,0 +1,149 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.java.Log;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.BaseConfig;
+import org.redisson.config.Config;
+import org.redisson.config.TransportMode;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the checker's lock and cache workload ({@link RedisHealthChecker#runOnce()}) against a fresh
+ * {@link RedissonClient} for every point in a matrix of client settings, then prints throughput, p99, CPU and thread
+ * counts per point.  Every dimension is a comma separated list overridable with {@code -Dsweep.<name>=...}:
+ * {@code threads}, {@code nettyThreads}, {@code transportMode}, {@code poolSize}, {@code timeout} and
+ * {@code retryInterval}.  The topology ({@code single}/{@code sentinel}) is launched locally unless
+ * {@code -Dsweep.launch=false}.  Run with {@code ./gradlew redissonSweep -Dsweep.transportMode=NIO,EPOLL}.
+ */
+@Log
+public class RedissonConfigSweep {
+
+    private static final String TOPOLOGY = System.getProperty("sweep.topology", "sentinel");
+    private static final int BASE_PORT = Integer.getInteger("sweep.basePort", 6430);
+    private static final int WORKERS = Integer.getInteger("sweep.workers", 32);
+    private static final long WARMUP_SECONDS = Long.getLong("sweep.warmupSeconds", 5);
+    private static final long MEASURE_SECONDS = Long.getLong("sweep.measureSeconds", 20);
+
+    public static void main(String[] args) throws Exception {
+        List<Point> points = new ArrayList<>();
+        for (String threads : dimension("threads", "16")) {
+            for (String nettyThreads : dimension("nettyThreads", "32")) {
+                for (String transport : dimension("transportMode", "NIO")) {
+                    for (String poolSize : dimension("poolSize", "64")) {
+                        for (String timeout : dimension("timeout", "5000")) {
+                            for (String retryInterval : dimension("retryInterval", "1500")) {
+                                points.add(new Point(Integer.parseInt(threads), Integer.parseInt(nettyThreads), TransportMode.valueOf(transport),
+                                        Integer.parseInt(poolSize), Integer.parseInt(timeout), Integer.parseInt(retryInterval)));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean launch = Boolean.parseBoolean(System.getProperty("sweep.launch", "true"));
+        List<String> rows = new ArrayList<>();
+        try (LocalRedisTopology redis = launch ? LocalRedisTopology.start(TOPOLOGY, BASE_PORT) : LocalRedisTopology.describe(TOPOLOGY, BASE_PORT)) {
+            String header = String.format("%-8s %-12s %-9s %-8s %-8s %-13s %12s %10s %8s %12s %8s",
+                    "threads", "nettyThreads", "transport", "poolSize", "timeout", "retryInterval", "ops/sec", "p99Ms", "cpu%", "peakThreads", "errors");
+            System.out.println(header);
+            for (Point point : points) {
+                String row = run(redis, point);
+                System.out.println(row);
+                rows.add(row);
+            }
+            if (args.length > 0) {
+                Path report = Path.of(args[0]).resolve("redisson-sweep-" + TOPOLOGY + ".txt");
+                Files.createDirectories(report.getParent());
+                try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+                    writer.println(header);
+                    rows.forEach(writer::println);
+                }
+                log.info("Sweep written to " + report);
+            }
+        }
+    }
+
+    private static String run(LocalRedisTopology redis, Point point) throws Exception {
+        Config config = redis.redissonConfig();
+        config.setThreads(point.threads()).setNettyThreads(point.nettyThreads()).setTransportMode(point.transport());
+        BaseConfig<?> servers;
+        if (config.isSentinelConfig()) {
+            servers = config.useSentinelServers().setMasterConnectionPoolSize(point.poolSize()).setSlaveConnectionPoolSize(point.poolSize());
+        } else {
+            servers = config.useSingleServer().setConnectionPoolSize(point.poolSize());
+        }
+        servers.setTimeout(point.timeout()).setRetryInterval(point.retryInterval());
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.OperatingSystemMXBean os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        RedissonClient client = Redisson.create(config);
+        RedisHealthChecker checker = new RedisHealthChecker(client, new SimpleMeterRegistry(), new RedisCheckerProperties(), 1);
+        try {
+            drive(checker, WARMUP_SECONDS, null, new AtomicLong());
+            threads.resetPeakThreadCount();
+            RollingLatencyStats latency = new RollingLatencyStats(1_000_000);
+            AtomicLong errors = new AtomicLong();
+            long cpuBefore = os.getProcessCpuTime();
+            long start = System.nanoTime();
+            long operations = drive(checker, MEASURE_SECONDS, latency, errors);
+            long wall = System.nanoTime() - start;
+            double cpuPercent = 100.0 * (os.getProcessCpuTime() - cpuBefore) / wall / Runtime.getRuntime().availableProcessors();
+            Map<String, Object> summary = latency.summary();
+            return String.format("%-8d %-12d %-9s %-8d %-8d %-13d %12.0f %10.2f %8.1f %12d %8d",
+                    point.threads(), point.nettyThreads(), point.transport(), point.poolSize(), point.timeout(), point.retryInterval(),
+                    operations * 1e9 / wall, (Double) summary.getOrDefault("p99Ms", 0.0), cpuPercent, threads.getPeakThreadCount(), errors.get());
+        } finally {
+            checker.close();
+            client.shutdown();
+        }
+    }
+
+    // Runs WORKERS platform threads through the workload until the deadline and returns the completed operations
+    private static long drive(RedisHealthChecker checker, long seconds, RollingLatencyStats latency, AtomicLong errors) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        checker.runOnce();
+                        completed.incrementAndGet();
+                        if (latency != null) {
+                            latency.record(System.nanoTime() - start);
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }, "sweep-worker-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return completed.get();
+    }
+
+    private static String[] dimension(String name, String defaults) {
+        return System.getProperty("sweep." + name, defaults).split("\\s*,\\s*");
+    }
+
+    private record Point(int threads, int nettyThreads, TransportMode transport, int poolSize, int timeout, int retryInterval) {
+    }
+}
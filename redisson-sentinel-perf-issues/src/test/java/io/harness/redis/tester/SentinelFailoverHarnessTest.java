@@ -0,0 +1,185 @@
+package io.harness.redis.tester;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.java.Log;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.config.SentinelServersConfig;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Spawns a local master, replica and three sentinels, drives continuous checker traffic through each driver, then
+ * fails the master over and reports how long each driver takes to recover.  The Redisson retry settings can be
+ * overridden with {@code -Dfailover.retryAttempts}, {@code -Dfailover.retryInterval} and
+ * {@code -Dfailover.failedSlaveReconnectionInterval} to compare tunings.  Only runs when asked for, with
+ * {@code ./gradlew test --tests SentinelFailoverHarnessTest -Dfailover=true}, and is skipped when redis-server is not
+ * installed.
+ */
+@Log
+@EnabledIfSystemProperty(named = "failover", matches = "true")
+class SentinelFailoverHarnessTest {
+
+    private static final int BASE_PORT = Integer.getInteger("failover.basePort", 6400);
+    private static final int WORKERS = Integer.getInteger("failover.workers", 4);
+    private static final long STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("failover.stallThresholdMs", 1000));
+    private static final long BASELINE_MS = 3000;
+    private static final long OBSERVE_MS = Long.getLong("failover.observeMs", 20000);
+
+    @BeforeAll
+    static void requireRedisServer() {
+        Assumptions.assumeTrue(LocalRedisTopology.isRedisServerAvailable(), "redis-server is not installed");
+    }
+
+    @ParameterizedTest(name = "{0} driver, {1}")
+    @CsvSource({"redisson, failover", "redisson, kill", "lettuce, failover", "lettuce, kill"})
+    void recoversFromMasterChange(String driver, String trigger) throws Exception {
+        try (LocalRedisTopology redis = LocalRedisTopology.sentinel(BASE_PORT)) {
+            RedissonClient redisson = null;
+            LettuceConnectionFactory lettuce = null;
+            RedisWorkload workload;
+            if (driver.equals("redisson")) {
+                redisson = Redisson.create(tuned(redis.redissonConfig()));
+                workload = new RedisHealthChecker(redisson, new SimpleMeterRegistry(), new RedisCheckerProperties(), 1);
+            } else {
+                lettuce = redis.lettuceConnectionFactory();
+                workload = new RedisLettuceHealthChecker(lettuce, new SimpleMeterRegistry(), new RedisCheckerProperties(), 1);
+            }
+            try {
+                FailoverReport report = drive(workload, () -> {
+                    if (trigger.equals("kill")) {
+                        redis.killMaster();
+                    } else {
+                        LocalRedisTopology.command(redis.getSentinelPorts().get(0), "SENTINEL", "FAILOVER", LocalRedisTopology.MASTER_NAME);
+                    }
+                });
+                log.info("Failover report [" + driver + ", " + trigger + "]: " + report);
+                assertTrue(report.recovered(), "No successful operation after the last failure: " + report);
+            } finally {
+                workload.close();
+                if (redisson != null) {
+                    redisson.shutdown();
+                }
+                if (lettuce != null) {
+                    lettuce.destroy();
+                }
+            }
+        }
+    }
+
+    private static Config tuned(Config config) {
+        SentinelServersConfig sentinel = config.useSentinelServers();
+        sentinel.setRetryAttempts(Integer.getInteger("failover.retryAttempts", 3));
+        sentinel.setRetryInterval(Integer.getInteger("failover.retryInterval", 1500));
+        sentinel.setFailedSlaveReconnectionInterval(Integer.getInteger("failover.failedSlaveReconnectionInterval", 3000));
+        return config;
+    }
+
+    private FailoverReport drive(RedisWorkload workload, Trigger trigger) throws Exception {
+        ConcurrentLinkedQueue<Operation> operations = new ConcurrentLinkedQueue<>();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(BASELINE_MS + OBSERVE_MS);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    long opStart = System.nanoTime();
+                    boolean success;
+                    try {
+                        workload.runOnce();
+                        success = true;
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    operations.add(new Operation(opStart, System.nanoTime(), success));
+                }
+            }, "failover-driver-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        Thread.sleep(BASELINE_MS);
+        long triggeredAt = System.nanoTime();
+        trigger.fire();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return FailoverReport.of(new ArrayList<>(operations), triggeredAt);
+    }
+
+    private interface Trigger {
+        void fire() throws Exception;
+    }
+
+    private record Operation(long startNanos, long endNanos, boolean success) {
+        long latencyNanos() {
+            return endNanos - startNanos;
+        }
+
+        boolean stalled() {
+            return !success || latencyNanos() > STALL_THRESHOLD_NANOS;
+        }
+    }
+
+    private record FailoverReport(int operations, int failed, int stalled, double timeToFirstSuccessMs,
+                                  double recoveryMs, double baselineP99Ms, double maxLatencyAfterTriggerMs) {
+
+        static FailoverReport of(List<Operation> operations, long triggeredAt) {
+            List<Long> baseline = new ArrayList<>();
+            long firstSuccessAfterTrigger = -1;
+            long lastFailureEnd = -1;
+            long maxAfterTrigger = 0;
+            int failed = 0;
+            int stalled = 0;
+            for (Operation operation : operations) {
+                if (operation.endNanos() < triggeredAt) {
+                    baseline.add(operation.latencyNanos());
+                    continue;
+                }
+                maxAfterTrigger = Math.max(maxAfterTrigger, operation.latencyNanos());
+                if (!operation.success()) {
+                    failed++;
+                    lastFailureEnd = Math.max(lastFailureEnd, operation.endNanos());
+                }
+                if (operation.stalled()) {
+                    stalled++;
+                }
+                if (operation.success() && operation.startNanos() >= triggeredAt
+                        && (firstSuccessAfterTrigger < 0 || operation.endNanos() < firstSuccessAfterTrigger)) {
+                    firstSuccessAfterTrigger = operation.endNanos();
+                }
+            }
+            long recoveredAt = -1;
+            for (Operation operation : operations) {
+                if (operation.success() && operation.startNanos() >= lastFailureEnd && operation.endNanos() >= triggeredAt
+                        && (recoveredAt < 0 || operation.endNanos() < recoveredAt)) {
+                    recoveredAt = operation.endNanos();
+                }
+            }
+            baseline.sort(null);
+            long baselineP99 = baseline.isEmpty() ? 0 : baseline.get((int) Math.ceil(baseline.size() * 0.99) - 1);
+            return new FailoverReport(operations.size(), failed, stalled,
+                    sinceTrigger(firstSuccessAfterTrigger, triggeredAt), sinceTrigger(recoveredAt, triggeredAt),
+                    RollingLatencyStats.toMillis(baselineP99), RollingLatencyStats.toMillis(maxAfterTrigger));
+        }
+
+        private static double sinceTrigger(long nanos, long triggeredAt) {
+            return nanos < 0 ? -1 : RollingLatencyStats.toMillis(nanos - triggeredAt);
+        }
+
+        boolean recovered() {
+            return recoveryMs >= 0;
+        }
+    }
+}